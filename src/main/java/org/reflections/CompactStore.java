@@ -0,0 +1,287 @@
+package org.reflections;
+
+import java.nio.IntBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * compact immutable {@link Store}, for keeping large scanned metadata in memory
+ * <pre>{@code new Reflections(new CompactStore(reflections.getStore()))}</pre>
+ * <p>each distinct name is stored once in a sorted dictionary shared by all indexes, and is referenced by its {@code int} id.
+ * each index keeps its sorted key ids, with the sorted value ids of each key in one {@code int[]}, delimited by an {@code int[]} of offsets.
+ * <p>indexes and value sets are read only views over these arrays, looked up by binary search,
+ * such that {@link org.reflections.util.QueryFunction queries} work the same as on a {@link Store}.
+ * <p>all mutating methods throw {@link UnsupportedOperationException}, therefore a {@link Reflections} over a compact store can not be rescanned or merged into.
+ * <p>see also {@link MappedStore}
+ */
+public class CompactStore extends Store {
+    private final Names names;
+
+    public CompactStore(Map<String, Map<String, Set<String>>> storeMap) {
+        this(new ArrayNames(storeMap));
+        storeMap.forEach((index, map) -> putIndex(index, map));
+    }
+
+    /** a compact store over the given {@code names} dictionary, with no indexes */
+    CompactStore(Names names) {
+        this.names = names;
+    }
+
+    /** adds an index of the given sorted {@code keys} ids, each with its sorted value ids in {@code values[offsets[i]..offsets[i + 1])} */
+    void putIndex(String index, IntBuffer keys, IntBuffer offsets, IntBuffer values) {
+        super.put(index, new Index(keys, offsets, values));
+    }
+
+    private void putIndex(String index, Map<String, Set<String>> map) {
+        int[] keys = new int[map.size()];
+        int i = 0, size = 0;
+        for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+            keys[i++] = names.id(entry.getKey());
+            size += entry.getValue().size();
+        }
+        Arrays.sort(keys);
+        int[] offsets = new int[keys.length + 1], values = new int[size];
+        for (i = 0; i < keys.length; i++) {
+            int offset = offsets[i];
+            for (String value : map.get(names.name(keys[i]))) values[offset++] = names.id(value);
+            Arrays.sort(values, offsets[i], offset);
+            offsets[i + 1] = offset;
+        }
+        putIndex(index, IntBuffer.wrap(keys), IntBuffer.wrap(offsets), IntBuffer.wrap(values));
+    }
+
+    /** binary search of {@code key} in the sorted {@code ints[from..to)}, as in {@link Arrays#binarySearch(int[], int, int, int)} */
+    private static int binarySearch(IntBuffer ints, int from, int to, int key) {
+        int low = from, high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1, value = ints.get(mid);
+            if (value < key) low = mid + 1;
+            else if (value > key) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    /** a dictionary of distinct names, each referenced by its {@code int} id in sorted order */
+    interface Names {
+        String name(int id);
+
+        /** the id of the given {@code name}, or a negative value if not in the dictionary */
+        int id(Object name);
+    }
+
+    private static class ArrayNames implements Names {
+        private final String[] names;
+
+        ArrayNames(Map<String, Map<String, Set<String>>> storeMap) {
+            Set<String> names = new HashSet<>();
+            storeMap.values().forEach(map -> map.forEach((key, values) -> {
+                names.add(key);
+                names.addAll(values);
+            }));
+            this.names = names.toArray(new String[0]);
+            Arrays.sort(this.names);
+        }
+
+        @Override
+        public String name(int id) {
+            return names[id];
+        }
+
+        @Override
+        public int id(Object name) {
+            return name instanceof String ? Arrays.binarySearch(names, name) : -1;
+        }
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(super.keySet());
+    }
+
+    @Override
+    public Collection<Map<String, Set<String>>> values() {
+        return Collections.unmodifiableCollection(super.values());
+    }
+
+    @Override
+    public Set<Map.Entry<String, Map<String, Set<String>>>> entrySet() {
+        return Collections.unmodifiableSet(super.entrySet());
+    }
+
+    @Override
+    public Map<String, Set<String>> put(String key, Map<String, Set<String>> value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Map<String, Set<String>>> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Set<String>> remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Set<String>> putIfAbsent(String key, Map<String, Set<String>> value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean replace(String key, Map<String, Set<String>> oldValue, Map<String, Set<String>> newValue) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Set<String>> replace(String key, Map<String, Set<String>> value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Set<String>> computeIfAbsent(String key, Function<? super String, ? extends Map<String, Set<String>>> mappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Set<String>> computeIfPresent(String key, BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Set<String>> compute(String key, BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, Set<String>> merge(String key, Map<String, Set<String>> value, BiFunction<? super Map<String, Set<String>>, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) {
+        throw new UnsupportedOperationException();
+    }
+
+    /** a read only index of sorted key ids, each with its sorted value ids in {@code values[offsets[i]..offsets[i + 1])} */
+    private class Index extends AbstractMap<String, Set<String>> {
+        private final IntBuffer keys, offsets, values;
+
+        Index(IntBuffer keys, IntBuffer offsets, IntBuffer values) {
+            this.keys = keys;
+            this.offsets = offsets;
+            this.values = values;
+        }
+
+        private int position(Object key) {
+            int id = names.id(key);
+            return id < 0 ? -1 : binarySearch(keys, 0, keys.limit(), id);
+        }
+
+        @Override
+        public Set<String> get(Object key) {
+            int position = position(key);
+            return position < 0 ? null : new Values(offsets.get(position), offsets.get(position + 1));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return position(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.limit();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Set<String>>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Set<String>>>() {
+                @Override
+                public Iterator<Map.Entry<String, Set<String>>> iterator() {
+                    return new Iterator<Map.Entry<String, Set<String>>>() {
+                        int position = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < keys.limit();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Set<String>> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            Map.Entry<String, Set<String>> entry = new SimpleImmutableEntry<>(names.name(keys.get(position)), new Values(offsets.get(position), offsets.get(position + 1)));
+                            position++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.limit();
+                }
+            };
+        }
+
+        /** a read only set of the value ids in {@code values[from..to)} */
+        private class Values extends AbstractSet<String> {
+            private final int from, to;
+
+            Values(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            public boolean contains(Object value) {
+                int id = names.id(value);
+                return id >= 0 && binarySearch(values, from, to, id) >= 0;
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    int position = from;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < to;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        return names.name(values.get(position++));
+                    }
+                };
+            }
+        }
+    }
+}
@@ -2,9 +2,12 @@ package org.reflections;
 
 import org.reflections.scanners.Scanner;
 
+import javax.annotation.Nullable;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 
 /**
@@ -21,13 +24,92 @@ public interface Configuration {
     /** the fully qualified name filter used to filter types to be scanned. defaults to accept all inputs (if null). */
     Predicate<String> getInputsFilter();
 
+    /** the module name filter used to filter modules of {@code jrt:} urls to be scanned. defaults to accept all modules (if null). */
+    @Nullable
+    default Predicate<String> getModulesFilter() {
+        return null;
+    }
+
     /** scan urls in parallel. defaults to true. */
     boolean isParallel();
 
+    /** optional executor used for parallel scanning. defaults to {@link java.util.concurrent.ForkJoinPool#commonPool()} (if null). */
+    @Nullable
+    default ExecutorService getExecutorService() {
+        return null;
+    }
+
+    /** number of reader threads of a pipelined scan, or 0 if not pipelined (default). */
+    default int getPipelineReaders() {
+        return 0;
+    }
+
+    /** number of scanner threads of a pipelined scan. */
+    default int getPipelineScanners() {
+        return 0;
+    }
+
+    /** number of indexer threads of a pipelined scan. */
+    default int getPipelineIndexers() {
+        return 0;
+    }
+
+    /** if true, read urls on virtual threads in a pipelined scan, if supported by the runtime (java 21+), and unless {@link #isIncremental()}. defaults to false. */
+    default boolean isVirtualThreads() {
+        return false;
+    }
+
+    /** if true, keep a fingerprint and the scanned metadata of each url, so that {@link Reflections#rescan()} rescans only changed urls, at the cost of holding the maps and sets of the store twice. defaults to false. */
+    default boolean isIncremental() {
+        return false;
+    }
+
+    /** optional directory for caching the scanned metadata of jar files across runs. defaults to null, not cached. */
+    @Nullable
+    default Path getCacheDir() {
+        return null;
+    }
+
+    /** optional listener receiving scanned entries as they are produced. defaults to null. */
+    @Nullable
+    default ScanListener getScanListener() {
+        return null;
+    }
+
+    /** if true (default), retain scanned entries in the {@link Store}. */
+    default boolean shouldRetainStore() {
+        return true;
+    }
+
     /** optional class loaders used for resolving types. */
     ClassLoader[] getClassLoaders();
 
     /** if true (default), expand super types after scanning, for super types that were not scanned.
      * <p>see {@link Reflections#expandSuperTypes(Map, Map)}*/
     boolean shouldExpandSuperTypes();
+
+    /** if true, build the {@link TypeClosure} of the sub types index after scanning. defaults to false.
+     * <p>see {@link Reflections#getTypeClosure()} */
+    default boolean shouldBuildTypeClosure() {
+        return false;
+    }
+
+    /** if true, {@link Reflections#merge(Reflections)} and {@link Reflections#rescan()} publish a new version of the store instead of modifying it in place,
+     * such that queries running concurrently read a consistent snapshot. defaults to false.
+     * <p>see {@link Reflections#getStore()} */
+    default boolean isConcurrentStore() {
+        return false;
+    }
+
+    /** the maximum number of query results cached by {@link Reflections}, or 0 for no cache. defaults to 0.
+     * <p>see {@link Reflections#getQueryCache()} */
+    default int getQueryCacheSize() {
+        return 0;
+    }
+
+    /** if true, collect {@link ScanStatistics} of each scan, per url and per scanner. defaults to false.
+     * <p>see {@link Reflections#getStatistics()} */
+    default boolean shouldCollectStatistics() {
+        return false;
+    }
 }
@@ -0,0 +1,195 @@
+package org.reflections;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link CompactStore} over a store file in binary format, queried in place without deserialization
+ * <pre>{@code Reflections reflections = new Reflections(MappedStore.open(path))}</pre>
+ * <p>opening a store only reads the header of each index, while names and ids are read from the mapped file as queried, off heap.
+ * <p>the binary format, written by {@link #write(Map, OutputStream)}, consists of big endian ints:
+ * <pre>
+ * magic, version, name count, name offsets[name count + 1], name bytes (utf-8, sorted, padded to 4 bytes)
+ * index count, and per index:
+ *   index name length, index name bytes (utf-8, padded to 4 bytes), key count, value count,
+ *   sorted key ids[key count], value offsets[key count + 1], sorted value ids per key[value count]
+ * </pre>
+ * <p>see {@link org.reflections.serializers.BinarySerializer}
+ */
+public class MappedStore extends CompactStore {
+    private static final int MAGIC = 0x52464c58, VERSION = 1;
+
+    /** a store over the given {@code buffer} from its position, in the binary store format */
+    public MappedStore(ByteBuffer buffer) {
+        this(new MappedNames(buffer.duplicate().order(ByteOrder.BIG_ENDIAN)));
+    }
+
+    private MappedStore(MappedNames names) {
+        super(names);
+        ByteBuffer buffer = names.buffer;
+        int position = names.end;
+        int indexes = buffer.getInt(position);
+        position += 4;
+        for (int i = 0; i < indexes; i++) {
+            int length = buffer.getInt(position);
+            String index = new String(bytes(buffer, position + 4, length), StandardCharsets.UTF_8);
+            position += 4 + padded(length);
+            int keys = buffer.getInt(position), values = buffer.getInt(position + 4);
+            position += 8;
+            IntBuffer keyIds = ints(buffer, position, keys);
+            IntBuffer offsets = ints(buffer, position += 4 * keys, keys + 1);
+            IntBuffer valueIds = ints(buffer, position += 4 * (keys + 1), values);
+            position += 4 * values;
+            putIndex(index, keyIds, offsets, valueIds);
+        }
+    }
+
+    /** memory maps the given store {@code file} */
+    public static MappedStore open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new ReflectionsException("store file too large to map " + file);
+            return new MappedStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** writes the given {@code storeMap} in the binary store format */
+    public static void write(Map<String, Map<String, Set<String>>> storeMap, OutputStream outputStream) throws IOException {
+        Set<String> distinct = new HashSet<>();
+        storeMap.values().forEach(map -> map.forEach((key, values) -> {
+            distinct.add(key);
+            distinct.addAll(values);
+        }));
+        // sorted by utf-8 bytes, as compared when looking up names in the mapped file
+        List<byte[]> names = new ArrayList<>(distinct.size());
+        for (String name : distinct) names.add(name.getBytes(StandardCharsets.UTF_8));
+        names.sort(MappedStore::compare);
+        String[] sorted = new String[names.size()];
+        Map<String, Integer> ids = new HashMap<>(names.size() * 2);
+        for (int id = 0; id < sorted.length; id++) ids.put(sorted[id] = new String(names.get(id), StandardCharsets.UTF_8), id);
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(names.size());
+        int offset = 0;
+        out.writeInt(offset);
+        for (byte[] name : names) out.writeInt(offset += name.length);
+        for (byte[] name : names) out.write(name);
+        pad(out, offset);
+
+        out.writeInt(storeMap.size());
+        for (Map.Entry<String, Map<String, Set<String>>> index : storeMap.entrySet()) {
+            byte[] indexName = index.getKey().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(indexName.length);
+            out.write(indexName);
+            pad(out, indexName.length);
+
+            Map<String, Set<String>> map = index.getValue();
+            int[] keys = map.keySet().stream().mapToInt(ids::get).sorted().toArray();
+            out.writeInt(keys.length);
+            out.writeInt(map.values().stream().mapToInt(Set::size).sum());
+            for (int key : keys) out.writeInt(key);
+            offset = 0;
+            out.writeInt(offset);
+            for (int key : keys) out.writeInt(offset += map.get(sorted[key]).size());
+            for (int key : keys) {
+                for (int value : map.get(sorted[key]).stream().mapToInt(ids::get).sorted().toArray()) {
+                    out.writeInt(value);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /** unsigned lexicographic comparison of utf-8 bytes, which is the order of code points */
+    private static int compare(byte[] a, byte[] b) {
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            int c = (a[i] & 0xff) - (b[i] & 0xff);
+            if (c != 0) return c;
+        }
+        return a.length - b.length;
+    }
+
+    private static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+
+    private static void pad(DataOutputStream out, int length) throws IOException {
+        for (int i = length; i < padded(length); i++) out.write(0);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) bytes[i] = buffer.get(position + i);
+        return bytes;
+    }
+
+    private static IntBuffer ints(ByteBuffer buffer, int position, int count) {
+        ByteBuffer slice = buffer.duplicate();
+        ((Buffer) slice).limit(position + 4 * count).position(position);
+        return slice.slice().asIntBuffer();
+    }
+
+    /** the names dictionary in the mapped file, looked up by comparing utf-8 bytes in place */
+    private static class MappedNames implements Names {
+        private final ByteBuffer buffer;
+        private final IntBuffer offsets;
+        private final int count, start, end;
+
+        MappedNames(ByteBuffer buffer) {
+            this.buffer = buffer;
+            int position = buffer.position();
+            if (buffer.remaining() < 12 || buffer.getInt(position) != MAGIC) throw new ReflectionsException("not a binary store");
+            if (buffer.getInt(position + 4) != VERSION) throw new ReflectionsException("unsupported binary store version " + buffer.getInt(position + 4));
+            count = buffer.getInt(position + 8);
+            offsets = ints(buffer, position + 12, count + 1);
+            start = position + 12 + 4 * (count + 1);
+            end = start + padded(offsets.get(count));
+        }
+
+        @Override
+        public String name(int id) {
+            int from = offsets.get(id);
+            return new String(bytes(buffer, start + from, offsets.get(id + 1) - from), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int id(Object name) {
+            if (!(name instanceof String)) return -1;
+            byte[] key = ((String) name).getBytes(StandardCharsets.UTF_8);
+            int low = 0, high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1, c = compare(mid, key);
+                if (c < 0) low = mid + 1;
+                else if (c > 0) high = mid - 1;
+                else return mid;
+            }
+            return -(low + 1);
+        }
+
+        /** compares the name of the given {@code id} with the given utf-8 {@code key} bytes in place */
+        private int compare(int id, byte[] key) {
+            int from = start + offsets.get(id), length = start + offsets.get(id + 1) - from;
+            for (int i = 0; i < Math.min(length, key.length); i++) {
+                int c = (buffer.get(from + i) & 0xff) - (key[i] & 0xff);
+                if (c != 0) return c;
+            }
+            return length - key.length;
+        }
+    }
+}
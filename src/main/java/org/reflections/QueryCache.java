@@ -0,0 +1,94 @@
+package org.reflections;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * bounded least recently used cache of {@link Reflections} query results, keyed by the query method and its arguments
+ * <pre>{@code
+ * Reflections reflections = new Reflections(new ConfigurationBuilder().forPackage("com.example").setQueryCacheSize(256));
+ * QueryCache cache = reflections.getQueryCache();
+ * System.out.println(cache.getHits() + " hits, " + cache.getMisses() + " misses");
+ * }</pre>
+ * <p>cached results are read only sets, shared by all callers of the same query.
+ * results are discarded by {@link Reflections#merge(Reflections) merge}, {@link Reflections#collect(java.io.InputStream, org.reflections.serializers.Serializer) collect}
+ * and {@link Reflections#rescan() rescan}, but not when modifying the store directly, see {@link #clear()}
+ * <p>see {@link org.reflections.util.ConfigurationBuilder#setQueryCacheSize(int)}
+ */
+public class QueryCache {
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+    private volatile Map<List<Object>, Set<?>> results;
+
+    QueryCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.results = newResults();
+    }
+
+    private Map<List<Object>, Set<?>> newResults() {
+        return new LinkedHashMap<List<Object>, Set<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Set<?>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /** the cached result of the given {@code key}, or the result of the given {@code query} which is then cached.
+     * <p>the results map is read before running the query, so that a result of a previous store version is never put after {@link #clear()} */
+    <T> Set<T> get(List<Object> key, Supplier<Set<T>> query) {
+        Map<List<Object>, Set<?>> results = this.results;
+        Set<?> result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (result != null) {
+            hits.increment();
+            //noinspection unchecked
+            return (Set<T>) result;
+        }
+        misses.increment();
+        Set<T> computed = Collections.unmodifiableSet(query.get());
+        synchronized (results) {
+            results.put(key, computed);
+        }
+        return computed;
+    }
+
+    /** discards all cached results, keeping the hit and miss counters */
+    public void clear() {
+        results = newResults();
+    }
+
+    /** the number of cached results */
+    public int size() {
+        Map<List<Object>, Set<?>> results = this.results;
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** the number of queries answered from the cache */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** the number of queries computed and then cached */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryCache{size=%d, maxSize=%d, hits=%d, misses=%d}", size(), maxSize, getHits(), getMisses());
+    }
+}
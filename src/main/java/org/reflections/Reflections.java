@@ -1,24 +1,24 @@
 package org.reflections;
 
-import javassist.bytecode.ClassFile;
+import org.reflections.scanners.EntrySink;
 import org.reflections.scanners.MemberUsageScanner;
 import org.reflections.scanners.MethodParameterNamesScanner;
 import org.reflections.scanners.Scanner;
 import org.reflections.scanners.Scanners;
 import org.reflections.serializers.Serializer;
 import org.reflections.serializers.XmlSerializer;
+import org.reflections.util.ClassFileReader;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 import org.reflections.util.NameHelper;
 import org.reflections.util.QueryFunction;
+import org.reflections.vfs.JrtDir;
 import org.reflections.vfs.Vfs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.io.BufferedInputStream;
-import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -31,6 +31,9 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,7 +42,16 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -113,9 +125,18 @@ import static org.reflections.scanners.Scanners.*;
  */
 public class Reflections implements NameHelper {
     public final static Logger log = LoggerFactory.getLogger(Reflections.class);
+    final static int SCAN_BATCH_SIZE = 256;
+    private final static AtomicReferenceFieldUpdater<Reflections, Snapshot> SNAPSHOT = AtomicReferenceFieldUpdater.newUpdater(Reflections.class, Snapshot.class, "snapshot");
 
     protected final transient Configuration configuration;
-    protected final Store store;
+    protected volatile Store store;
+    private final transient Object writeLock = new Object();
+    private final transient Map<URL, UrlScan> urlScans = new ConcurrentHashMap<>();
+    private transient Map<Scanner, byte[][]> constantPoolPrefixes = Collections.emptyMap();
+    private transient ScanStatistics statistics = new ScanStatistics();
+    private transient StringPool stringPool = new StringPool();
+    private transient volatile Snapshot snapshot;
+    @Nullable private transient QueryCache queryCache;
 
     /**
      * constructs Reflections instance and scan according to the given {@link org.reflections.Configuration}
@@ -123,16 +144,15 @@ public class Reflections implements NameHelper {
      */
     public Reflections(Configuration configuration) {
         this.configuration = configuration;
-        Map<String, Map<String, Set<String>>> storeMap = scan();
-        if (configuration.shouldExpandSuperTypes()) {
-            expandSuperTypes(storeMap.get(SubTypes.index()), storeMap.get(TypesAnnotated.index()));
-        }
-        store = new Store(storeMap);
+        if (configuration.getQueryCacheSize() > 0) queryCache = new QueryCache(configuration.getQueryCacheSize());
+        store = new Store(scanAndExpand());
+        snapshot = new Snapshot(store, configuration.shouldBuildTypeClosure() ? buildTypeClosure(store) : null);
     }
 
     public Reflections(Store store) {
         this.configuration = new ConfigurationBuilder();
         this.store = store;
+        snapshot = new Snapshot(store, null);
     }
 
     /**
@@ -162,79 +182,390 @@ public class Reflections implements NameHelper {
     protected Reflections() {
         configuration = new ConfigurationBuilder();
         store = new Store(new HashMap<>());
+        snapshot = new Snapshot(store, null);
+    }
+
+    /**
+     * rescan the configured urls and replace the store contents.
+     * <p>if {@link Configuration#isIncremental()}, only urls whose {@link Vfs#fingerprint(URL) fingerprint} changed since the previous scan are rescanned,
+     * and the stale contributions of changed or removed urls are replaced, while the rest are reused.
+     * <p>should not be called concurrently with queries on this instance, unless {@link Configuration#isConcurrentStore()}
+     */
+    public Reflections rescan() {
+        synchronized (writeLock) {
+            Map<String, Map<String, Set<String>>> storeMap = scanAndExpand();
+            if (configuration.isConcurrentStore()) {
+                publish(new Store(storeMap));
+            } else {
+                store.clear();
+                store.putAll(storeMap);
+                snapshot = new Snapshot(store, configuration.shouldBuildTypeClosure() ? buildTypeClosure(store) : null);
+                if (queryCache != null) queryCache.clear();
+            }
+        }
+        return this;
+    }
+
+    /** publishes the given {@code next} version of the store, which must not be modified once published,
+     * together with its type closure as one snapshot, such that a query never pairs a store version with the closure of another */
+    private void publish(Store next) {
+        snapshot = new Snapshot(next, configuration.shouldBuildTypeClosure() ? buildTypeClosure(next) : null);
+        store = next;
+        if (queryCache != null) queryCache.clear();
+    }
+
+    /** the current snapshot, or a snapshot of the current store without a type closure if the store was replaced directly, as by deserialization or subclasses */
+    private Snapshot snapshot() {
+        Snapshot snapshot = this.snapshot;
+        Store store = this.store;
+        return snapshot != null && snapshot.store == store ? snapshot : new Snapshot(store, null);
+    }
+
+    private Map<String, Map<String, Set<String>>> scanAndExpand() {
+        Map<String, Map<String, Set<String>>> storeMap = scan();
+        if (configuration.shouldExpandSuperTypes()) {
+            expandSuperTypes(storeMap.get(SubTypes.index()), storeMap.get(TypesAnnotated.index()));
+        }
+        return storeMap;
     }
 
     protected Map<String, Map<String, Set<String>>> scan() {
         long start = System.currentTimeMillis();
-        Map<String, Set<Map.Entry<String, String>>> collect = configuration.getScanners().stream().map(Scanner::index).distinct()
-            .collect(Collectors.toMap(s -> s, s -> Collections.synchronizedSet(new HashSet<>())));
-        Set<URL> urls = configuration.getUrls();
-
-        (configuration.isParallel() ? urls.stream().parallel() : urls.stream()).forEach(url -> {
-            Vfs.Dir dir = null;
-            try {
-                dir = Vfs.fromURL(url);
-                for (Vfs.File file : dir.getFiles()) {
-                    if (doFilter(file, configuration.getInputsFilter())) {
-                        ClassFile classFile = null;
-                        for (Scanner scanner : configuration.getScanners()) {
-                            try {
-                                if (doFilter(file, scanner::acceptsInput)) {
-                                    List<Map.Entry<String, String>> entries = scanner.scan(file);
-                                    if (entries == null) {
-                                        if (classFile == null) classFile = getClassFile(file);
-                                        entries = scanner.scan(classFile);
-                                    }
-                                    if (entries != null) collect.get(scanner.index()).addAll(entries);
-                                }
-                            } catch (Exception e) {
-                                if (log != null) log.trace("could not scan file {} with scanner {}", file.getRelativePath(), scanner.getClass().getSimpleName(), e);
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                if (log != null) log.warn("could not create Vfs.Dir from url. ignoring the exception and continuing", e);
-            } finally {
-                if (dir != null) dir.close();
+        Set<URL> urls = expandModules(configuration.getUrls());
+        statistics = new ScanStatistics();
+        stringPool = new StringPool();
+        constantPoolPrefixes = new HashMap<>();
+        for (Scanner scanner : configuration.getScanners()) {
+            List<String> prefixes = scanner.getConstantPoolPrefixes();
+            if (prefixes != null) {
+                constantPoolPrefixes.put(scanner, prefixes.stream().map(prefix -> prefix.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new));
             }
-        });
+        }
+        Executor executor = !configuration.isParallel() ? Runnable::run :
+            configuration.getExecutorService() != null ? configuration.getExecutorService() : ForkJoinPool.commonPool();
+        boolean incremental = configuration.isIncremental() && configuration.shouldRetainStore();
+        boolean pipelined = configuration.getPipelineReaders() > 0 || configuration.isVirtualThreads() && ScanPipeline.supportsVirtualThreads();
+        ScanCache cache = configuration.shouldRetainStore() && (incremental || !pipelined) ? ScanCache.of(configuration) : null;
+        Map<String, Map<String, Set<String>>> storeMap;
+        if (incremental) {
+            if (pipelined && log != null) log.debug("incremental scan is not pipelined, ignoring the pipelined and virtual threads configuration");
+            storeMap = scanIncremental(urls, executor, cache);
+        } else if (pipelined) {
+            storeMap = new ScanPipeline(this, configuration).scan(urls);
+        } else {
+            // each task accumulates into its own store map, partial maps are then merged pairwise as tasks complete
+            List<CompletableFuture<Map<String, Map<String, Set<String>>>>> tasks = urls.stream()
+                .map(url -> cache == null || !cache.accepts(url) ? scan(url, executor) :
+                    CompletableFuture.supplyAsync(() -> Vfs.fingerprint(url), executor)
+                        .thenCompose(fingerprint -> scan(url, fingerprint, executor, cache)))
+                .collect(Collectors.toList());
+            storeMap = mergeStoreMaps(tasks, 0, tasks.size()).join();
+        }
 
-        // merge
-        Map<String, Map<String, Set<String>>> storeMap =
-            collect.entrySet().stream()
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    entry -> entry.getValue().stream().filter(e -> e.getKey() != null)
-                        .collect(Collectors.groupingBy(
-                            Map.Entry::getKey,
-                            HashMap::new,
-                            Collectors.mapping(Map.Entry::getValue, Collectors.toSet())))));
         if (log != null) {
             int keys = 0, values = 0;
             for (Map<String, Set<String>> map : storeMap.values()) {
                 keys += map.size();
                 values += map.values().stream().mapToLong(Set::size).sum();
             }
-            log.info(format("Reflections took %d ms to scan %d urls, producing %d keys and %d values", System.currentTimeMillis() - start, urls.size(), keys, values));
+            log.info(format("Reflections took %d ms to scan %d urls, producing %d keys and %d values%s", System.currentTimeMillis() - start, urls.size(), keys, values,
+                cache != null ? format(" (scan cache %d hits, %d misses)", cache.hits.get(), cache.misses.get()) : ""));
+            if (configuration.shouldCollectStatistics() && log.isDebugEnabled()) log.debug("Reflections scan statistics:\n{}", statistics);
+        }
+        if (configuration.shouldCollectStatistics()) statistics.commitEvents();
+        stringPool = new StringPool(); // release pooled strings, which are now referenced by the store only
+        return storeMap;
+    }
+
+    /** the given {@code urls}, with {@code jrt:} module urls not accepted by the {@link Configuration#getModulesFilter() modules filter} removed,
+     * and the runtime image url {@code jrt:/} expanded into a url per accepted module, such that modules are scanned in parallel */
+    private Set<URL> expandModules(Set<URL> urls) {
+        if (urls.stream().noneMatch(url -> "jrt".equals(url.getProtocol()))) return urls;
+        Predicate<String> modulesFilter = configuration.getModulesFilter() != null ? configuration.getModulesFilter() : module -> true;
+        Set<URL> expanded = new LinkedHashSet<>();
+        for (URL url : urls) {
+            if (!"jrt".equals(url.getProtocol())) {
+                expanded.add(url);
+            } else {
+                String module = JrtDir.getModuleName(url);
+                if (module.isEmpty()) expanded.addAll(ClasspathHelper.forModules(modulesFilter));
+                else if (modulesFilter.test(module)) expanded.add(url);
+            }
+        }
+        return expanded;
+    }
+
+    /** scan only the {@code urls} that changed since the previous scan, keeping the partial store map of each url for the next rescan */
+    private Map<String, Map<String, Set<String>>> scanIncremental(Set<URL> urls, Executor executor, @Nullable ScanCache cache) {
+        AtomicInteger unchanged = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = urls.stream()
+            .map(url -> CompletableFuture.supplyAsync(() -> Vfs.fingerprint(url), executor)
+                .thenCompose(fingerprint -> {
+                    UrlScan previous = urlScans.get(url);
+                    if (fingerprint != null && previous != null && fingerprint.equals(previous.fingerprint)) {
+                        unchanged.incrementAndGet();
+                        return CompletableFuture.completedFuture(previous);
+                    }
+                    return scan(url, fingerprint, executor, cache).thenApply(storeMap -> new UrlScan(fingerprint, storeMap));
+                })
+                .thenAccept(urlScan -> urlScans.put(url, urlScan)))
+            .collect(Collectors.toList());
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        urlScans.keySet().retainAll(urls);
+
+        // partial store maps are kept intact, so merge them by copying, canonicalizing strings of reused and rescanned urls alike
+        Map<String, Map<String, Set<String>>> storeMap = createStoreMap();
+        for (UrlScan urlScan : urlScans.values()) {
+            urlScan.storeMap.forEach((index, map) -> copyIndex(storeMap.computeIfAbsent(index, i -> new HashMap<>()), map, stringPool));
+        }
+        if (log != null) log.debug("reused {} unchanged urls out of {}", unchanged.get(), urls.size());
+        return storeMap;
+    }
+
+    /** scan the given {@code url} with the given {@code fingerprint}, loading from or saving to the given {@code cache} if possible */
+    private CompletableFuture<Map<String, Map<String, Set<String>>>> scan(URL url, @Nullable String fingerprint, Executor executor, @Nullable ScanCache cache) {
+        if (cache == null || fingerprint == null || !cache.accepts(url)) return scan(url, executor);
+        String key = cache.key(fingerprint);
+        Map<String, Map<String, Set<String>>> cached = cache.load(key, stringPool);
+        if (cached != null) {
+            cached.forEach((index, map) -> map.forEach((k, values) -> notifyListener(url, index, k, values)));
+            return CompletableFuture.completedFuture(cached);
+        }
+        // save before the partial store map is merged into others
+        return scan(url, executor).thenApply(storeMap -> {
+            cache.save(key, storeMap);
+            return storeMap;
+        });
+    }
+
+    /** scan the given {@code url} on the given {@code executor}.
+     * <p>when scanning in parallel, random access dirs are split into {@link Vfs.Dir#getFileBatches(int) file batches}, each scanned as a separate task */
+    private CompletableFuture<Map<String, Map<String, Set<String>>>> scan(URL url, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> Vfs.fromURL(url), executor)
+            .thenCompose(dir -> {
+                CompletableFuture<Map<String, Map<String, Set<String>>>> task;
+                try {
+                    Vfs.PathFilter pathFilter = getPathFilter(url);
+                    List<Iterable<Vfs.File>> batches = configuration.isParallel() ?
+                        dir.getFileBatches(SCAN_BATCH_SIZE, pathFilter) : Collections.singletonList(dir.getFiles(pathFilter));
+                    boolean filtered = pathFilter != Vfs.PathFilter.ALL && dir.appliesPathFilter();
+                    List<CompletableFuture<Map<String, Map<String, Set<String>>>>> tasks = batches.stream()
+                        .map(files -> CompletableFuture.supplyAsync(() -> scan(url, files, filtered), executor))
+                        .collect(Collectors.toList());
+                    task = mergeStoreMaps(tasks, 0, tasks.size());
+                } catch (RuntimeException e) {
+                    dir.close();
+                    throw e;
+                }
+                return task.whenComplete((storeMap, e) -> dir.close());
+            })
+            .exceptionally(e -> {
+                if (configuration.shouldCollectStatistics()) statistics.forUrl(url).exceptions.increment();
+                if (log != null) log.warn("could not create Vfs.Dir from url. ignoring the exception and continuing", e instanceof CompletionException ? e.getCause() : e);
+                return createStoreMap();
+            });
+    }
+
+    /** scan the given {@code files} of the given {@code url} with the configured scanners into a new store map, which is confined to the current task */
+    protected Map<String, Map<String, Set<String>>> scan(URL url, Iterable<Vfs.File> files) {
+        return scan(url, files, false);
+    }
+
+    /** scan the given {@code files}, which are already accepted by the inputs filter if {@code filtered}, as it was applied by their dir as a {@link Vfs.PathFilter} */
+    private Map<String, Map<String, Set<String>>> scan(URL url, Iterable<Vfs.File> files, boolean filtered) {
+        Map<String, Map<String, Set<String>>> storeMap = createStoreMap();
+        boolean retainStore = configuration.shouldRetainStore();
+        Map<String, EntrySink> sinks = new HashMap<>();
+        for (String index : storeMap.keySet()) sinks.put(index, sink(url, index, retainStore ? storeMap.get(index) : null));
+        ScanStatistics.Batch batch = configuration.shouldCollectStatistics() ? statistics.batch(url, configuration.getScanners()) : null;
+        try {
+            for (Vfs.File file : files) {
+                if (filtered || doFilter(file, configuration.getInputsFilter())) {
+                    scan(url, file, null, sinks::get, batch);
+                } else if (batch != null) {
+                    batch.url.filesSkipped.increment();
+                }
+            }
+        } catch (Exception e) {
+            if (batch != null) batch.url.exceptions.increment();
+            if (log != null) log.warn("could not get files from Vfs.Dir. ignoring the exception and continuing", e);
+        } finally {
+            if (batch != null) batch.done();
+        }
+        return storeMap;
+    }
+
+    /** scan the given {@code file} of the given {@code url} with the configured scanners, pushing the key/values of each scanner into the sink of its index.
+     * <p>class file {@code bytes} are parsed if given, otherwise the file is read if required by any scanner.
+     * <p>counts into the given statistics {@code batch} of the url, if collecting statistics */
+    void scan(URL url, Vfs.File file, @Nullable byte[] bytes, Function<String, EntrySink> sinks, @Nullable ScanStatistics.Batch batch) {
+        if (batch != null) batch.url.filesScanned.increment();
+        ClassFileReader classFile = null;
+        int i = -1;
+        for (Scanner scanner : configuration.getScanners()) {
+            i++;
+            if (!doFilter(file, scanner::acceptsInput)) continue;
+            ScanStatistics.Counters scannerStatistics = batch != null ? batch.scanners[i] : null;
+            long wallStart = scannerStatistics != null ? System.nanoTime() : 0, cpuStart = scannerStatistics != null ? ScanStatistics.cpuTime() : 0;
+            try {
+                List<Map.Entry<String, String>> entries = scanner.scan(file);
+                EntrySink sink = sinks.apply(scanner.index());
+                if (entries != null) {
+                    for (Map.Entry<String, String> entry : entries) sink.accept(entry.getKey(), entry.getValue());
+                } else {
+                    if (classFile == null) {
+                        classFile = bytes != null ? new ClassFileReader(bytes) : getClassFile(file);
+                        if (batch != null) batch.url.parsed(classFile.getLength());
+                    }
+                    byte[][] prefixes = constantPoolPrefixes.get(scanner);
+                    // cheap constant pool pre-check, skip class files without any relevant constant
+                    if (prefixes != null && !classFile.hasUtf8Prefix(prefixes)) {
+                        if (scannerStatistics != null) scannerStatistics.filesSkipped.increment();
+                        continue;
+                    }
+                    if (scannerStatistics != null) scannerStatistics.parsed(classFile.getLength());
+                    scanner.scan(classFile, sink);
+                }
+                if (scannerStatistics != null) scannerStatistics.filesScanned.increment();
+            } catch (Exception e) {
+                if (batch != null) {
+                    batch.url.exceptions.increment();
+                    scannerStatistics.exceptions.increment();
+                }
+                if (log != null) log.trace("could not scan file {} with scanner {}", file.getRelativePath(), scanner.getClass().getSimpleName(), e);
+            } finally {
+                if (scannerStatistics != null) scannerStatistics.addTime(wallStart, cpuStart);
+            }
         }
+    }
+
+    /** a sink of scanned key/values of the given {@code url} and {@code index}, passing them to the configured {@link ScanListener} if any,
+     * and accumulating them into the given {@code target} index if not null */
+    EntrySink sink(URL url, String index, @Nullable Map<String, Set<String>> target) {
+        ScanListener listener = configuration.getScanListener();
+        return (key, value) -> {
+            if (key == null) return;
+            if (listener != null) listener.onEntry(index, key, value, url);
+            if (target != null) index(target, key, value, stringPool);
+        };
+    }
+
+    private void notifyListener(URL url, String index, String key, Set<String> values) {
+        ScanListener listener = configuration.getScanListener();
+        if (listener != null) {
+            for (String value : values) listener.onEntry(index, key, value, url);
+        }
+    }
+
+    /** accumulates the given {@code key} and {@code value} into the given {@code index}, canonicalized through the given {@code pool} */
+    static void index(Map<String, Set<String>> index, String key, String value, StringPool pool) {
+        index.computeIfAbsent(pool.get(key), k -> new HashSet<>()).add(pool.get(value));
+    }
+
+    /** copies the given {@code source} index into {@code target}, canonicalizing keys and values through the given {@code pool} */
+    private static void copyIndex(Map<String, Set<String>> target, Map<String, Set<String>> source, StringPool pool) {
+        source.forEach((key, values) -> {
+            Set<String> targetValues = target.computeIfAbsent(pool.get(key), k -> new HashSet<>());
+            for (String value : values) targetValues.add(pool.get(value));
+        });
+    }
+
+    StringPool getStringPool() {
+        return stringPool;
+    }
+
+    Map<String, Map<String, Set<String>>> createStoreMap() {
+        Map<String, Map<String, Set<String>>> storeMap = new HashMap<>();
+        for (Scanner scanner : configuration.getScanners()) storeMap.computeIfAbsent(scanner.index(), i -> new HashMap<>());
         return storeMap;
     }
 
-    private boolean doFilter(Vfs.File file, @Nullable Predicate<String> predicate) {
+    /** merges the partial store maps of {@code tasks} in range [from, to) by pairwise tree reduction, without blocking */
+    CompletableFuture<Map<String, Map<String, Set<String>>>> mergeStoreMaps(
+            List<CompletableFuture<Map<String, Map<String, Set<String>>>>> tasks, int from, int to) {
+        if (to - from == 0) return CompletableFuture.completedFuture(createStoreMap());
+        if (to - from == 1) return tasks.get(from);
+        int mid = (from + to) >>> 1;
+        return mergeStoreMaps(tasks, from, mid).thenCombine(mergeStoreMaps(tasks, mid, to), (target, source) -> {
+            mergeStoreMaps(target, source);
+            return target;
+        });
+    }
+
+    /** merges partial {@code source} store map into {@code target}, reusing the larger of each two merged maps or sets */
+    private static void mergeStoreMaps(Map<String, Map<String, Set<String>>> target, Map<String, Map<String, Set<String>>> source) {
+        source.forEach((index, map) -> target.merge(index, map, Reflections::mergeIndex));
+    }
+
+    private static Map<String, Set<String>> mergeIndex(Map<String, Set<String>> m1, Map<String, Set<String>> m2) {
+        if (m1.size() < m2.size()) return mergeIndex(m2, m1);
+        m2.forEach((key, values) -> m1.merge(key, values, Reflections::mergeValues));
+        return m1;
+    }
+
+    private static Set<String> mergeValues(Set<String> s1, Set<String> s2) {
+        if (s1.size() < s2.size()) return mergeValues(s2, s1);
+        s1.addAll(s2);
+        return s1;
+    }
+
+    private static class UrlScan {
+        @Nullable final String fingerprint;
+        final Map<String, Map<String, Set<String>>> storeMap;
+
+        UrlScan(@Nullable String fingerprint, Map<String, Map<String, Set<String>>> storeMap) {
+            this.fingerprint = fingerprint;
+            this.storeMap = storeMap;
+        }
+    }
+
+    /** a path filter of the inputs filter for the dir of the given {@code url}, skipping excluded files and sub directories while iterating,
+     * if the inputs filter is a {@link FilterBuilder} */
+    Vfs.PathFilter getPathFilter(URL url) {
+        Predicate<String> inputsFilter = configuration.getInputsFilter();
+        if (!(inputsFilter instanceof FilterBuilder)) return Vfs.PathFilter.ALL;
+        FilterBuilder filterBuilder = (FilterBuilder) inputsFilter;
+        ScanStatistics.Counters urlStatistics = configuration.shouldCollectStatistics() ? statistics.forUrl(url) : null;
+        return new Vfs.PathFilter() {
+            @Override
+            public boolean acceptsFile(String path) {
+                if (filterBuilder.testPath(path)) return true;
+                if (urlStatistics != null) urlStatistics.filesSkipped.increment();
+                return false;
+            }
+
+            @Override
+            public boolean acceptsDir(String dirPath) {
+                return filterBuilder.testDir(dirPath);
+            }
+        };
+    }
+
+    boolean doFilter(Vfs.File file, @Nullable Predicate<String> predicate) {
+        if (predicate == null) return true;
         String path = file.getRelativePath();
-        String fqn = path.replace('/', '.');
-        return predicate == null || predicate.test(path) || predicate.test(fqn);
+        if (predicate instanceof FilterBuilder) return ((FilterBuilder) predicate).testPath(path);
+        return predicate.test(path) || predicate.test(path.replace('/', '.'));
     }
 
-    private ClassFile getClassFile(Vfs.File file) {
-        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(file.openInputStream()))) {
-            return new ClassFile(dis);
+    /** reads the given {@code file} from its {@link Vfs.File#getByteBuffer() buffer} if supported, which is only valid until the next file is read */
+    private ClassFileReader getClassFile(Vfs.File file) {
+        try {
+            ByteBuffer buffer = file.getByteBuffer();
+            if (buffer != null) return new ClassFileReader(buffer);
+            try (InputStream inputStream = file.openInputStream()) {
+                return ClassFileReader.read(inputStream);
+            }
         } catch (Exception e) {
             throw new ReflectionsException("could not create class object from file " + file.getRelativePath(), e);
         }
     }
 
+    /** statistics of the last scan, per url and per scanner, empty unless {@link Configuration#shouldCollectStatistics()} */
+    public ScanStatistics getStatistics() {
+        return statistics;
+    }
+
     /** collect saved Reflection xml resources and merge it into a Reflections instance
      * <p>by default, resources are collected from all urls that contains the package META-INF/reflections
      * and includes files matching the pattern .*-reflections.xml
@@ -267,10 +598,12 @@ public class Reflections implements NameHelper {
         Collection<URL> urls = ClasspathHelper.forPackage(packagePrefix);
         Iterable<Vfs.File> files = Vfs.findFiles(urls, packagePrefix, resourceNameFilter);
         Reflections reflections = new Reflections();
+        // one pool for all collected files, released once collected
+        StringPool pool = new StringPool();
         StreamSupport.stream(files.spliterator(), false)
             .forEach(file -> {
                 try (InputStream inputStream = file.openInputStream()) {
-                    reflections.collect(inputStream, serializer);
+                    reflections.merge(serializer.read(inputStream), pool);
                 } catch (IOException e) {
                     throw new ReflectionsException("could not merge " + file, e);
                 }
@@ -298,15 +631,55 @@ public class Reflections implements NameHelper {
         }
     }
 
-    /** merges the given {@code reflections} instance metadata into this instance */
+    /** merges the given {@code reflections} instance metadata into this instance.
+     * <p>merged strings are canonicalized through a pool scoped to this merge, seeded from this store unless {@link Configuration#isConcurrentStore()}.
+     * {@link #collect(String, Predicate, Serializer)} shares one pool across all collected files instead
+     * <p>if {@link Configuration#isConcurrentStore()}, a new version of the store is published, and queries running concurrently keep reading the previous one */
     public Reflections merge(Reflections reflections) {
-        reflections.store.forEach((index, map) -> this.store.merge(index, map, (m1, m2) -> {
-            m2.forEach((k, v) -> m1.merge(k, v, (s1, s2) -> { s1.addAll(s2); return s1;}));
-            return m1;
-        }));
+        synchronized (writeLock) {
+            StringPool pool = new StringPool();
+            if (!configuration.isConcurrentStore()) pool.addAll(store);
+            return merge(reflections, pool);
+        }
+    }
+
+    /** merges the given {@code reflections} instance metadata into this instance, canonicalizing merged strings through the given {@code pool} */
+    private Reflections merge(Reflections reflections, StringPool pool) {
+        synchronized (writeLock) {
+            Store store = this.store;
+            if (configuration.isConcurrentStore()) {
+                publish(mergeVersion(store, reflections.store, pool));
+            } else {
+                reflections.store.forEach((index, map) -> copyIndex(store.computeIfAbsent(index, i -> new HashMap<>()), map, pool));
+                store.resetReverseIndexes();
+                snapshot = new Snapshot(store, configuration.shouldBuildTypeClosure() ? buildTypeClosure(store) : null);
+                if (queryCache != null) queryCache.clear();
+            }
+        }
         return this;
     }
 
+    /** a new version of the {@code current} store with the {@code source} store merged, leaving {@code current} unmodified.
+     * <p>only the indexes and value sets that change are copied, while unchanged indexes and value sets are shared with the current version */
+    private static Store mergeVersion(Store current, Store source, StringPool pool) {
+        Store next = new Store(current);
+        source.forEach((index, map) -> {
+            Map<String, Set<String>> currentIndex = current.getOrDefault(index, Collections.emptyMap());
+            Map<String, Set<String>> nextIndex = null;
+            for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+                Set<String> currentValues = currentIndex.get(entry.getKey());
+                if (currentValues != null && currentValues.containsAll(entry.getValue())) continue;
+                if (nextIndex == null) nextIndex = new HashMap<>(currentIndex);
+                Set<String> nextValues = currentValues != null ? new HashSet<>(currentValues) : new HashSet<>();
+                for (String value : entry.getValue()) nextValues.add(pool.get(value));
+                nextIndex.put(pool.get(entry.getKey()), nextValues);
+            }
+            if (nextIndex != null) next.put(index, nextIndex);
+            else if (!current.containsKey(index)) next.put(index, new HashMap<>());
+        });
+        return next;
+    }
+
     /**
      * expand super types after scanning, for super types that were not scanned.
      * <br>this is helpful for finding the transitive closure without scanning all 3rd party dependencies.
@@ -365,15 +738,83 @@ public class Reflections implements NameHelper {
         return query.apply(store);
     }
 
+    /**
+     * lazily evaluate {@link QueryFunction} on {@link Store}, without materializing its result or the intermediate results of composed queries
+     * <pre>{@code
+     * Optional<Class<?>> first = reflections.stream(SubTypes.of(type).asClass()).findFirst();
+     * long count = reflections.stream(TypesAnnotated.with(annotation)).count();
+     * }</pre>
+     * <p>use short circuiting terminal operations such as {@code findFirst}, {@code anyMatch} or {@code limit} to evaluate only the elements needed
+     * <p>the stream reads the live sets of the store rather than a copy, and must be consumed before the store is modified by {@link #merge(Reflections)},
+     * {@link #collect(InputStream, Serializer)} or {@link #rescan()}, otherwise it may throw {@link java.util.ConcurrentModificationException} or miss elements.
+     * if {@link Configuration#isConcurrentStore()}, the stream keeps reading the store version it was created on, and may be consumed at any time
+     */
+    public <T> Stream<T> stream(QueryFunction<Store, T> query) {
+        return query.stream(store);
+    }
+
+    /** the result of the given {@code query} method, from the query cache by the given method {@code key} and arguments if configured */
+    private <T> Set<T> cached(Supplier<Set<T>> query, Object... key) {
+        QueryCache queryCache = this.queryCache;
+        return queryCache != null ? queryCache.get(Arrays.asList(key), query) : query.get();
+    }
+
+    /**
+     * gets the cache of query results, or null if not configured
+     * <p>see {@link ConfigurationBuilder#setQueryCacheSize(int)}
+     */
+    @Nullable
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
     /**
      * gets all subtypes in hierarchy of a given {@code type}.
-     * <p>similar to {@code get(SubTypes.of(type))}
+     * <p>similar to {@code get(SubTypes.of(type))}, which returns nearest sub types first.
+     * if {@link Configuration#shouldBuildTypeClosure()}, sub types are returned in the depth first order of the {@link TypeClosure} instead
      * <p></p><i>depends on {@link Scanners#SubTypes} configured</i>
      */
     public <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type) {
-        //noinspection unchecked
-        return (Set<Class<? extends T>>) get(SubTypes.of(type)
-            .as((Class<? extends T>) Class.class, loaders()));
+        return cached(() -> {
+            Snapshot snapshot = snapshot();
+            //noinspection unchecked
+            return snapshot.typeClosure != null ?
+                (Set<Class<? extends T>>) (Set) forNames(snapshot.typeClosure.getSubTypes(toName(type)), Class.class, loaders()) :
+                (Set<Class<? extends T>>) SubTypes.of(type)
+                    .as((Class<? extends T>) Class.class, loaders()).apply(snapshot.store);
+        }, "getSubTypesOf", type);
+    }
+
+    /**
+     * gets the transitive closure of the {@link Scanners#SubTypes} index, building it on first use if not built after scanning.
+     * <p>the closure answers transitive sub types, super types and sub type checks without traversing the index,
+     * and is used by {@link #getSubTypesOf(Class)} once built.
+     * <p>the closure is rebuilt after {@link #rescan()} and {@link #merge(Reflections)}, but not after modifying the store directly
+     * <p>see {@link ConfigurationBuilder#setBuildTypeClosure(boolean)}
+     */
+    public TypeClosure getTypeClosure() {
+        Snapshot observed = this.snapshot;
+        Snapshot snapshot = snapshot();
+        if (snapshot.typeClosure != null) return snapshot.typeClosure;
+        TypeClosure closure = buildTypeClosure(snapshot.store);
+        // keep the closure only if no merge or rescan published another snapshot meanwhile
+        SNAPSHOT.compareAndSet(this, observed, new Snapshot(snapshot.store, closure));
+        return closure;
+    }
+
+    private static TypeClosure buildTypeClosure(Store store) {
+        return new TypeClosure(store.getOrDefault(SubTypes.index(), Collections.emptyMap()));
+    }
+
+    /** a version of the store paired with its type closure, if built, published as one immutable object */
+    private static class Snapshot {
+        final Store store;
+        @Nullable final TypeClosure typeClosure;
+
+        Snapshot(Store store, @Nullable TypeClosure typeClosure) {
+            this.store = store;
+            this.typeClosure = typeClosure;
+        }
     }
 
     /**
@@ -383,7 +824,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#TypesAnnotated} and {@link Scanners#SubTypes} configured</i>
      */
     public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
-        return get(SubTypes.of(TypesAnnotated.with(annotation)).asClass(loaders()));
+        return cached(() -> get(SubTypes.of(TypesAnnotated.with(annotation)).asClass(loaders())),
+            "getTypesAnnotatedWith", annotation);
     }
 
     /**
@@ -399,14 +841,13 @@ public class Reflections implements NameHelper {
         if (!honorInherited) {
             return getTypesAnnotatedWith(annotation);
         } else {
-            if (annotation.isAnnotationPresent(Inherited.class)) {
-                return get(TypesAnnotated.get(annotation)
+            return cached(() -> annotation.isAnnotationPresent(Inherited.class) ?
+                get(TypesAnnotated.get(annotation)
                     .add(SubTypes.of(TypesAnnotated.get(annotation)
                         .filter(c -> !forClass(c, loaders()).isInterface())))
-                    .asClass(loaders()));
-            } else {
-                return get(TypesAnnotated.get(annotation).asClass(loaders()));
-            }
+                    .asClass(loaders())) :
+                get(TypesAnnotated.get(annotation).asClass(loaders())),
+                "getTypesAnnotatedWith", annotation, true);
         }
     }
 
@@ -416,10 +857,11 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#TypesAnnotated} and {@link Scanners#SubTypes} configured</i>
      */
     public Set<Class<?>> getTypesAnnotatedWith(Annotation annotation) {
-        return get(SubTypes.of(
-                TypesAnnotated.of(TypesAnnotated.get(annotation.annotationType())
-                    .filter(c -> withAnnotation(annotation).test(forClass(c, loaders())))))
-            .asClass(loaders()));
+        return cached(() -> get(SubTypes.of(
+                    TypesAnnotated.of(TypesAnnotated.get(annotation.annotationType())
+                        .filter(c -> withAnnotation(annotation).test(forClass(c, loaders())))))
+                .asClass(loaders())),
+            "getTypesAnnotatedWith", annotation);
     }
 
     /**
@@ -432,12 +874,11 @@ public class Reflections implements NameHelper {
             return getTypesAnnotatedWith(annotation);
         } else {
             Class<? extends Annotation> type = annotation.annotationType();
-            if (type.isAnnotationPresent(Inherited.class)) {
-                return get(TypesAnnotated.with(type).asClass(loaders()).filter(withAnnotation(annotation))
-                    .add(SubTypes.of(TypesAnnotated.with(type).asClass(loaders()).filter(c -> !c.isInterface()))));
-            } else {
-                return get(TypesAnnotated.with(type).asClass(loaders()).filter(withAnnotation(annotation)));
-            }
+            return cached(() -> type.isAnnotationPresent(Inherited.class) ?
+                get(TypesAnnotated.with(type).asClass(loaders()).filter(withAnnotation(annotation))
+                    .add(SubTypes.of(TypesAnnotated.with(type).asClass(loaders()).filter(c -> !c.isInterface())))) :
+                get(TypesAnnotated.with(type).asClass(loaders()).filter(withAnnotation(annotation))),
+                "getTypesAnnotatedWith", annotation, true);
         }
     }
 
@@ -447,7 +888,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#MethodsAnnotated} configured</i>
      */
     public Set<Method> getMethodsAnnotatedWith(Class<? extends Annotation> annotation) {
-        return get(MethodsAnnotated.with(annotation).as(Method.class, loaders()));
+        return cached(() -> get(MethodsAnnotated.with(annotation).as(Method.class, loaders())),
+            "getMethodsAnnotatedWith", annotation);
     }
 
     /**
@@ -456,8 +898,9 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#MethodsAnnotated} configured</i>
      */
     public Set<Method> getMethodsAnnotatedWith(Annotation annotation) {
-        return get(MethodsAnnotated.with(annotation.annotationType()).as(Method.class, loaders())
-            .filter(withAnnotation(annotation)));
+        return cached(() -> get(MethodsAnnotated.with(annotation.annotationType()).as(Method.class, loaders())
+                .filter(withAnnotation(annotation))),
+            "getMethodsAnnotatedWith", annotation);
     }
 
     /**
@@ -466,7 +909,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#MethodsSignature} configured</i>
      */
     public Set<Method> getMethodsWithSignature(Class<?>... types) {
-        return get(MethodsSignature.with(types).as(Method.class, loaders()));
+        return cached(() -> get(MethodsSignature.with(types).as(Method.class, loaders())),
+            "getMethodsWithSignature", Arrays.asList(types));
     }
 
     /**
@@ -475,7 +919,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#MethodsParameter} configured</i>
      */
     public Set<Method> getMethodsWithParameter(AnnotatedElement type) {
-        return get(MethodsParameter.with(type).as(Method.class, loaders()));
+        return cached(() -> get(MethodsParameter.with(type).as(Method.class, loaders())),
+            "getMethodsWithParameter", type);
     }
 
     /**
@@ -484,7 +929,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#MethodsParameter} configured</i>
      */
     public Set<Method> getMethodsReturn(Class<?> type) {
-        return get(MethodsReturn.of(type).as(Method.class, loaders()));
+        return cached(() -> get(MethodsReturn.of(type).as(Method.class, loaders())),
+            "getMethodsReturn", type);
     }
 
     /**
@@ -493,7 +939,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#ConstructorsAnnotated} configured</i>
      */
     public Set<Constructor> getConstructorsAnnotatedWith(Class<? extends Annotation> annotation) {
-        return get(ConstructorsAnnotated.with(annotation).as(Constructor.class, loaders()));
+        return cached(() -> get(ConstructorsAnnotated.with(annotation).as(Constructor.class, loaders())),
+            "getConstructorsAnnotatedWith", annotation);
     }
 
     /**
@@ -502,8 +949,9 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#ConstructorsAnnotated} configured</i>
      */
     public Set<Constructor> getConstructorsAnnotatedWith(Annotation annotation) {
-        return get(ConstructorsAnnotated.with(annotation.annotationType()).as(Constructor.class, loaders())
-            .filter(withAnyParameterAnnotation(annotation)));
+        return cached(() -> get(ConstructorsAnnotated.with(annotation.annotationType()).as(Constructor.class, loaders())
+                .filter(withAnyParameterAnnotation(annotation))),
+            "getConstructorsAnnotatedWith", annotation);
     }
 
     /**
@@ -512,7 +960,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#ConstructorsSignature} configured</i>
      */
     public Set<Constructor> getConstructorsWithSignature(Class<?>... types) {
-        return get(ConstructorsSignature.with(types).as(Constructor.class, loaders()));
+        return cached(() -> get(ConstructorsSignature.with(types).as(Constructor.class, loaders())),
+            "getConstructorsWithSignature", Arrays.asList(types));
     }
 
     /**
@@ -521,7 +970,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#ConstructorsParameter} configured</i>
      */
     public Set<Constructor> getConstructorsWithParameter(AnnotatedElement type) {
-        return get(ConstructorsParameter.of(type).as(Constructor.class, loaders()));
+        return cached(() -> get(ConstructorsParameter.of(type).as(Constructor.class, loaders())),
+            "getConstructorsWithParameter", type);
     }
 
     /**
@@ -530,7 +980,8 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#FieldsAnnotated} configured</i>
      */
     public Set<Field> getFieldsAnnotatedWith(Class<? extends Annotation> annotation) {
-        return get(FieldsAnnotated.with(annotation).as(Field.class, loaders()));
+        return cached(() -> get(FieldsAnnotated.with(annotation).as(Field.class, loaders())),
+            "getFieldsAnnotatedWith", annotation);
     }
 
     /**
@@ -539,8 +990,9 @@ public class Reflections implements NameHelper {
      * <p></p><i>depends on {@link Scanners#FieldsAnnotated} configured</i>
      */
     public Set<Field> getFieldsAnnotatedWith(Annotation annotation) {
-        return get(FieldsAnnotated.with(annotation.annotationType()).as(Field.class, loaders())
-            .filter(withAnnotation(annotation)));
+        return cached(() -> get(FieldsAnnotated.with(annotation.annotationType()).as(Field.class, loaders())
+                .filter(withAnnotation(annotation))),
+            "getFieldsAnnotatedWith", annotation);
     }
 
     /**
@@ -601,6 +1053,8 @@ public class Reflections implements NameHelper {
     /**
      * returns the {@link org.reflections.Store} object used for storing and querying the metadata
      * <p>{@code Store} is basically {@code Map<String, Map<String, Set<String>>>}
+     * <p>if {@link Configuration#isConcurrentStore()}, this is the current version of the store, which is replaced rather than modified on merge or rescan,
+     * and should therefore be treated as read only
      */
     public Store getStore() {
         return store;
@@ -0,0 +1,160 @@
+package org.reflections;
+
+import org.reflections.scanners.Scanner;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.reflections.util.JavassistHelper;
+import org.reflections.vfs.Vfs;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.reflections.Reflections.log;
+
+/**
+ * on-disk cache of the partial store map scanned from each jar file url.
+ * <p>entries are keyed by the {@link Vfs#fingerprint(URL) jar fingerprint}, together with the {@link Scanner#cacheKey() scanners}
+ * and the inputs filter, such that a changed jar or configuration never reuses a stale entry.
+ * see {@link org.reflections.util.ConfigurationBuilder#setCacheDir(Path)}
+ */
+class ScanCache {
+    private static final int VERSION = 1;
+
+    private final Path dir;
+    private final String configurationKey;
+    final AtomicInteger hits = new AtomicInteger(), misses = new AtomicInteger();
+
+    private ScanCache(Path dir, String configurationKey) {
+        this.dir = dir;
+        this.configurationKey = configurationKey;
+    }
+
+    /** creates a scan cache for the given {@code configuration}, or null if no cache dir is configured,
+     * or if any of the scanners or the inputs filter can not be keyed */
+    @Nullable
+    static ScanCache of(Configuration configuration) {
+        if (configuration.getCacheDir() == null) return null;
+        StringBuilder key = new StringBuilder().append(VERSION).append(" ").append(JavassistHelper.includeInvisibleTag);
+        // sorted, since the scanners set has no stable iteration order across jvm runs
+        List<String> scannerKeys = new ArrayList<>();
+        for (Scanner scanner : configuration.getScanners()) {
+            String scannerKey = scanner.cacheKey();
+            if (scannerKey == null) return null;
+            scannerKeys.add(scanner.getClass().getName() + " " + scanner.index() + " " + scannerKey);
+        }
+        Collections.sort(scannerKeys);
+        for (String scannerKey : scannerKeys) key.append("\n").append(scannerKey);
+        Predicate<String> inputsFilter = configuration.getInputsFilter();
+        if (inputsFilter == null || inputsFilter == ConfigurationBuilder.DEFAULT_INPUTS_FILTER) key.append("\n*");
+        else if (inputsFilter instanceof FilterBuilder) key.append("\n").append(inputsFilter);
+        else return null;
+        return new ScanCache(configuration.getCacheDir(), key.toString());
+    }
+
+    /** true if the given {@code url} is a jar file, which can be cached */
+    boolean accepts(URL url) {
+        java.io.File file = Vfs.getFile(url);
+        return file != null && file.isFile();
+    }
+
+    /** the cache key of a url with the given {@code fingerprint} */
+    String key(String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(fingerprint.getBytes(StandardCharsets.UTF_8));
+            digest.update(configurationKey.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) key.append(String.format("%02x", b));
+            return key.toString();
+        } catch (Exception e) {
+            throw new ReflectionsException("could not create cache key", e);
+        }
+    }
+
+    /** loads the cached store map of the given {@code key}, canonicalizing strings through the given {@code pool}, or null if missing or unreadable */
+    @Nullable
+    Map<String, Map<String, Set<String>>> load(String key, StringPool pool) {
+        Path path = dir.resolve(key + ".idx");
+        if (Files.isRegularFile(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if (in.readInt() != VERSION) throw new IOException("unknown version");
+                Map<String, Map<String, Set<String>>> storeMap = new HashMap<>();
+                for (int indexes = in.readInt(); indexes > 0; indexes--) {
+                    Map<String, Set<String>> index = storeMap.computeIfAbsent(readString(in), i -> new HashMap<>());
+                    for (int keys = in.readInt(); keys > 0; keys--) {
+                        String k = pool.get(readString(in));
+                        int size = in.readInt();
+                        Set<String> values = new HashSet<>(size * 4 / 3 + 1);
+                        for (int i = 0; i < size; i++) values.add(pool.get(readString(in)));
+                        index.put(k, values);
+                    }
+                }
+                hits.incrementAndGet();
+                return storeMap;
+            } catch (Exception e) {
+                if (log != null) log.debug("could not load scan cache {}", path, e);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /** saves the given {@code storeMap} under the given {@code key}, replacing atomically so that concurrent readers see complete entries */
+    void save(String key, Map<String, Map<String, Set<String>>> storeMap) {
+        try {
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, key, ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(VERSION);
+                    out.writeInt(storeMap.size());
+                    for (Map.Entry<String, Map<String, Set<String>>> index : storeMap.entrySet()) {
+                        writeString(out, index.getKey());
+                        out.writeInt(index.getValue().size());
+                        for (Map.Entry<String, Set<String>> entry : index.getValue().entrySet()) {
+                            writeString(out, entry.getKey());
+                            out.writeInt(entry.getValue().size());
+                            for (String value : entry.getValue()) writeString(out, value);
+                        }
+                    }
+                }
+                Files.move(temp, dir.resolve(key + ".idx"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (Exception e) {
+            if (log != null) log.warn("could not save scan cache to {}", dir, e);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
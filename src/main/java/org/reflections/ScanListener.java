@@ -0,0 +1,22 @@
+package org.reflections;
+
+import java.net.URL;
+
+/**
+ * receives scanned entries as they are produced, before the {@link Store} is materialized.
+ * <pre>{@code
+ * new Reflections(new ConfigurationBuilder()
+ *     .forPackage("com.my.project")
+ *     .setScanListener((index, key, value, url) -> { if (index.equals(SubTypes.index())) register(value); })
+ *     .setRetainStore(false))
+ * }</pre>
+ * <p>listeners are called concurrently by the scanning threads, and so should be thread safe.
+ * the same entry may be received more than once, for example if found in several urls.
+ * <p>see {@link org.reflections.util.ConfigurationBuilder#setScanListener(ScanListener)}
+ */
+@FunctionalInterface
+public interface ScanListener {
+
+    /** called for each entry scanned into the given scanner {@code index}, with its {@code key}, {@code value} and source {@code url} */
+    void onEntry(String index, String key, String value, URL url);
+}
@@ -0,0 +1,353 @@
+package org.reflections;
+
+import org.reflections.scanners.EntrySink;
+import org.reflections.vfs.Vfs;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.reflections.Reflections.log;
+
+/**
+ * pipelined scan, separating I/O from parsing and indexing.
+ * <p>reader threads read class file bytes into a bounded queue, scanner threads parse and scan them into a second bounded queue,
+ * and indexer threads accumulate the entries into partial store maps, which are merged once all stages are done.
+ * <p>bounded queues apply backpressure, such that a fast stage blocks rather than buffering the whole classpath.
+ * if any stage fails, the pipeline is cancelled and the failure is thrown, rather than leaving the other stages blocked.
+ * <p>each dir is closed once all of its files are read and scanned.
+ * <p>with virtual threads, each url and file batch is read on its own virtual thread, and scanner threads are sized to the number of cores.
+ * see {@link org.reflections.util.ConfigurationBuilder#setPipelined(int, int, int)} and {@link org.reflections.util.ConfigurationBuilder#setVirtualThreads(boolean)}
+ */
+class ScanPipeline {
+    private static final int QUEUE_CAPACITY_PER_THREAD = 64;
+    private static final ReadFile END_OF_FILES = new ReadFile(null, null, null, null);
+    private static final List<String> END_OF_ENTRIES = new ArrayList<>();
+    @Nullable private static final Method newVirtualThreadPerTaskExecutor = virtualThreadsMethod();
+
+    private final Reflections reflections;
+    private final Configuration configuration;
+    private final boolean virtualThreads;
+    private final int readers, scanners, indexers;
+    private final BlockingQueue<ReadFile> files;
+    private final BlockingQueue<List<String>> entries;
+    private final Set<OpenDir> dirs = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingReads = new AtomicInteger();
+    private final CountDownLatch readsDone = new CountDownLatch(1);
+    private final List<CompletableFuture<Map<String, Map<String, Set<String>>>>> indexed = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    ScanPipeline(Reflections reflections, Configuration configuration) {
+        this.reflections = reflections;
+        this.configuration = configuration;
+        this.virtualThreads = configuration.getPipelineReaders() == 0;
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.readers = configuration.getPipelineReaders();
+        this.scanners = virtualThreads ? cores : configuration.getPipelineScanners();
+        this.indexers = virtualThreads ? Math.max(1, cores / 4) : configuration.getPipelineIndexers();
+        this.files = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_THREAD * scanners);
+        this.entries = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_THREAD * indexers);
+    }
+
+    /** true if the runtime supports virtual threads, java 21+ */
+    static boolean supportsVirtualThreads() {
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    @Nullable
+    private static Method virtualThreadsMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private ExecutorService readerPool() {
+        if (!virtualThreads) return Executors.newFixedThreadPool(readers, threads("reader"));
+        try {
+            return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+        } catch (Exception e) {
+            throw new ReflectionsException("could not create virtual thread executor", e);
+        }
+    }
+
+    /** scan the given {@code urls} through the pipeline, returning the merged store map */
+    Map<String, Map<String, Set<String>>> scan(Set<URL> urls) {
+        ExecutorService readerPool = readerPool();
+        ExecutorService stagePool = Executors.newFixedThreadPool(scanners + indexers, threads("scan"));
+        try {
+            for (int i = 0; i < indexers; i++) indexed.add(CompletableFuture.supplyAsync(this::index, stagePool));
+            indexed.forEach(task -> task.whenComplete((storeMap, e) -> {
+                if (e != null) fail(e);
+            }));
+
+            AtomicInteger scanning = new AtomicInteger(scanners);
+            for (int i = 0; i < scanners; i++) {
+                stagePool.execute(() -> {
+                    try {
+                        scan();
+                    } catch (Throwable e) {
+                        fail(e);
+                    } finally {
+                        if (scanning.decrementAndGet() == 0) putAll(entries, END_OF_ENTRIES, indexers);
+                    }
+                });
+            }
+
+            pendingReads.incrementAndGet();
+            for (URL url : urls) submitRead(readerPool, () -> read(readerPool, url));
+            readDone();
+            readsDone.await();
+            putAll(files, END_OF_FILES, scanners);
+
+            return reflections.mergeStoreMaps(indexed, 0, indexed.size()).join();
+        } catch (CompletionException e) {
+            throw new ReflectionsException("could not scan", failure.get() != null ? failure.get() : e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReflectionsException("interrupted while scanning", e);
+        } finally {
+            readerPool.shutdownNow();
+            stagePool.shutdownNow();
+            dirs.forEach(OpenDir::close);
+        }
+    }
+
+    /** cancels the pipeline on the first failure of any stage, releasing the calling thread, which then throws the failure */
+    private void fail(Throwable e) {
+        if (!failure.compareAndSet(null, e)) return;
+        readsDone.countDown();
+        indexed.forEach(task -> task.completeExceptionally(e));
+    }
+
+    /** reader stage: open the dir of the given {@code url} and read each of its file batches as a separate reader task */
+    private void read(ExecutorService readerPool, URL url) {
+        OpenDir dir = null;
+        try {
+            dir = new OpenDir(Vfs.fromURL(url));
+            dirs.add(dir);
+            Vfs.PathFilter pathFilter = reflections.getPathFilter(url);
+            boolean filtered = pathFilter != Vfs.PathFilter.ALL && dir.dir.appliesPathFilter();
+            for (Iterable<Vfs.File> batch : dir.dir.getFileBatches(Reflections.SCAN_BATCH_SIZE, pathFilter)) {
+                OpenDir batchDir = dir.acquire();
+                submitRead(readerPool, () -> {
+                    try {
+                        read(url, batchDir, batch, filtered);
+                    } finally {
+                        batchDir.release();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            if (configuration.shouldCollectStatistics()) reflections.getStatistics().forUrl(url).exceptions.increment();
+            if (log != null) log.warn("could not create Vfs.Dir from url. ignoring the exception and continuing", e);
+        } finally {
+            if (dir != null) dir.release();
+        }
+    }
+
+    /** reads the files of the given {@code batch} of the given {@code dir}, which are already accepted by the inputs filter if {@code filtered} */
+    private void read(URL url, OpenDir dir, Iterable<Vfs.File> batch, boolean filtered) {
+        ScanStatistics.Counters urlStatistics = configuration.shouldCollectStatistics() ? reflections.getStatistics().forUrl(url) : null;
+        long wallStart = urlStatistics != null ? System.nanoTime() : 0, cpuStart = urlStatistics != null ? ScanStatistics.cpuTime() : 0;
+        try {
+            for (Vfs.File file : batch) {
+                if (!filtered && !reflections.doFilter(file, configuration.getInputsFilter())) {
+                    if (urlStatistics != null) urlStatistics.filesSkipped.increment();
+                } else if (configuration.getScanners().stream().anyMatch(scanner -> reflections.doFilter(file, scanner::acceptsInput))) {
+                    ReadFile read = new ReadFile(url, dir.acquire(), file, file.getName().endsWith(".class") ? readBytes(file) : null);
+                    if (!put(files, read)) {
+                        dir.release();
+                        return;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (urlStatistics != null) urlStatistics.exceptions.increment();
+            if (log != null) log.warn("could not get files from Vfs.Dir. ignoring the exception and continuing", e);
+        } finally {
+            if (urlStatistics != null) urlStatistics.addTime(wallStart, cpuStart);
+        }
+    }
+
+    /** scanner stage: parse and scan read files, until the end of files.
+     * scanned entries of each file are passed to the indexers as a flat list of index, key and value triples */
+    private void scan() {
+        boolean retainStore = configuration.shouldRetainStore();
+        // statistics counters resolved once per url by this scanner thread, files of all urls being interleaved
+        Map<URL, ScanStatistics.Batch> batches = new HashMap<>();
+        try {
+            for (ReadFile read; (read = files.take()) != END_OF_FILES; ) {
+                List<String> scanned = new ArrayList<>();
+                URL url = read.url;
+                ScanStatistics.Batch batch = !configuration.shouldCollectStatistics() ? null :
+                    batches.computeIfAbsent(url, u -> reflections.getStatistics().batch(u, configuration.getScanners()));
+                try {
+                    reflections.scan(url, read.file, read.bytes, index -> {
+                        EntrySink listened = reflections.sink(url, index, null);
+                        return !retainStore ? listened : (key, value) -> {
+                            listened.accept(key, value);
+                            if (key != null) {
+                                scanned.add(index);
+                                scanned.add(key);
+                                scanned.add(value);
+                            }
+                        };
+                    }, batch);
+                } finally {
+                    read.dir.release();
+                }
+                if (!scanned.isEmpty() && !put(entries, scanned)) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** indexer stage: accumulate scanned entries into a partial store map, until the end of entries */
+    private Map<String, Map<String, Set<String>>> index() {
+        Map<String, Map<String, Set<String>>> storeMap = reflections.createStoreMap();
+        try {
+            for (List<String> scanned; (scanned = entries.take()) != END_OF_ENTRIES; ) {
+                for (int i = 0; i < scanned.size(); i += 3) {
+                    Reflections.index(storeMap.get(scanned.get(i)), scanned.get(i + 1), scanned.get(i + 2), reflections.getStringPool());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return storeMap;
+    }
+
+    /** submits a reader task, counting pending reads so that the end of files is signaled once all reads are done */
+    private void submitRead(ExecutorService readerPool, Runnable task) {
+        pendingReads.incrementAndGet();
+        readerPool.execute(() -> {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                readDone();
+            }
+        });
+    }
+
+    private void readDone() {
+        if (pendingReads.decrementAndGet() == 0) readsDone.countDown();
+    }
+
+    @Nullable
+    private static byte[] readBytes(Vfs.File file) {
+        try {
+            // copy out of the buffer, which may be pooled by this reader thread
+            ByteBuffer buffer = file.getByteBuffer();
+            if (buffer != null) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return bytes;
+            }
+            try (InputStream inputStream = file.openInputStream()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+                byte[] chunk = new byte[4096];
+                for (int read; (read = inputStream.read(chunk)) != -1; ) bytes.write(chunk, 0, read);
+                return bytes.toByteArray();
+            }
+        } catch (Exception e) {
+            return null; // read again and report by the scanner stage
+        }
+    }
+
+    /** puts the given {@code item} into the given {@code queue}, waiting for space until the pipeline fails.
+     * returns false if the pipeline failed, in which case the item is dropped */
+    private <T> boolean put(BlockingQueue<T> queue, T item) throws InterruptedException {
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            if (failure.get() != null) return false;
+        }
+        return true;
+    }
+
+    private <T> void putAll(BlockingQueue<T> queue, T item, int count) {
+        try {
+            for (int i = 0; i < count; i++) {
+                if (!put(queue, item)) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory threads(String stage) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "reflections-" + stage + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class ReadFile {
+        final URL url;
+        final OpenDir dir;
+        final Vfs.File file;
+        @Nullable final byte[] bytes;
+
+        ReadFile(URL url, OpenDir dir, Vfs.File file, @Nullable byte[] bytes) {
+            this.url = url;
+            this.dir = dir;
+            this.file = file;
+            this.bytes = bytes;
+        }
+    }
+
+    /** a dir kept open while listing its batches, reading any of them, or scanning any of its read files, and closed once released by all */
+    private class OpenDir {
+        final Vfs.Dir dir;
+        private final AtomicInteger users = new AtomicInteger(1);
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        OpenDir(Vfs.Dir dir) {
+            this.dir = dir;
+        }
+
+        OpenDir acquire() {
+            users.incrementAndGet();
+            return this;
+        }
+
+        void release() {
+            if (users.decrementAndGet() == 0) close();
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                dirs.remove(this);
+                dir.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.reflections;
+
+import org.reflections.scanners.Scanner;
+
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.reflections.Reflections.log;
+
+/**
+ * statistics of the last scan, per url and per scanner.
+ * <pre>{@code
+ * ScanStatistics statistics = reflections.getStatistics();
+ * statistics.getUrls().forEach((url, counters) -> System.out.println(url + ": " + counters));
+ * }</pre>
+ * <p>collected only if {@link Configuration#shouldCollectStatistics()}, otherwise empty.
+ * <p>times are measured per batch of files of a url, and summed over the tasks that worked on the url, which may run concurrently.
+ * scanner times are measured per file around each scanner, including reading and parsing the class file for the first scanner requiring it.
+ * scanner bytes read and class files parsed count the class files passed to the scanner.
+ * cpu times are measured using {@link ThreadMXBean#getCurrentThreadCpuTime()}, and are 0 if not supported or enabled.
+ * <p>when running with JFR, an {@code org.reflections.UrlScan} and an {@code org.reflections.ScannerScan} event is committed per url and scanner after each scan
+ */
+public class ScanStatistics {
+    private final Map<URL, Counters> urls = new ConcurrentHashMap<>();
+    private final Map<String, Counters> scanners = new ConcurrentHashMap<>();
+
+    /** counters per scanned url */
+    public Map<URL, Counters> getUrls() {
+        return Collections.unmodifiableMap(urls);
+    }
+
+    /** counters per scanner index */
+    public Map<String, Counters> getScanners() {
+        return Collections.unmodifiableMap(scanners);
+    }
+
+    Counters forUrl(URL url) {
+        return urls.computeIfAbsent(url, u -> new Counters());
+    }
+
+    Counters forScanner(Scanner scanner) {
+        return scanners.computeIfAbsent(scanner.index(), i -> new Counters());
+    }
+
+    /** starts timing a batch of files of the given {@code url}, resolving the counters of the url and of each of the given {@code scanners} once */
+    Batch batch(URL url, Collection<Scanner> scanners) {
+        Counters[] scannerCounters = new Counters[scanners.size()];
+        int i = 0;
+        for (Scanner scanner : scanners) scannerCounters[i++] = forScanner(scanner);
+        return new Batch(forUrl(url), scannerCounters);
+    }
+
+    /** the current thread cpu time in nanoseconds, or 0 if not supported */
+    static long cpuTime() {
+        return Cpu.threads != null ? Cpu.threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    /** commits JFR events for all urls and scanners, if JFR is available */
+    void commitEvents() {
+        if (Jfr.urlEvent == null) return;
+        urls.forEach((url, counters) -> Jfr.commit(Jfr.urlEvent, url.toExternalForm(), counters));
+        scanners.forEach((index, counters) -> Jfr.commit(Jfr.scannerEvent, index, counters));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        urls.forEach((url, counters) -> builder.append(url).append(": ").append(counters).append("\n"));
+        scanners.forEach((index, counters) -> builder.append(index).append(": ").append(counters).append("\n"));
+        return builder.toString();
+    }
+
+    /** counters of a batch of files of a url, scanned by a single task, with the scanner counters in the order of the configured scanners */
+    static class Batch {
+        final Counters url;
+        final Counters[] scanners;
+        private final long wallStart = System.nanoTime(), cpuStart = cpuTime();
+
+        Batch(Counters url, Counters[] scanners) {
+            this.url = url;
+            this.scanners = scanners;
+        }
+
+        /** adds the time since this batch started to the url counters */
+        void done() {
+            url.addTime(wallStart, cpuStart);
+        }
+    }
+
+    /** scan counters of a url or a scanner */
+    public static class Counters {
+        final LongAdder wallTime = new LongAdder(), cpuTime = new LongAdder(), bytesRead = new LongAdder(),
+            classFilesParsed = new LongAdder(), filesScanned = new LongAdder(), filesSkipped = new LongAdder(), exceptions = new LongAdder();
+
+        /** wall time in nanoseconds */
+        public long getWallTime() {
+            return wallTime.sum();
+        }
+
+        /** cpu time in nanoseconds */
+        public long getCpuTime() {
+            return cpuTime.sum();
+        }
+
+        /** bytes of class files read */
+        public long getBytesRead() {
+            return bytesRead.sum();
+        }
+
+        public long getClassFilesParsed() {
+            return classFilesParsed.sum();
+        }
+
+        public long getFilesScanned() {
+            return filesScanned.sum();
+        }
+
+        /** files skipped by the inputs filter for a url, not counting files of skipped sub directories, or by the constant pool pre-check for a scanner */
+        public long getFilesSkipped() {
+            return filesSkipped.sum();
+        }
+
+        /** exceptions ignored while scanning */
+        public long getExceptions() {
+            return exceptions.sum();
+        }
+
+        void addTime(long wallStart, long cpuStart) {
+            wallTime.add(System.nanoTime() - wallStart);
+            cpuTime.add(cpuTime() - cpuStart);
+        }
+
+        void parsed(int bytes) {
+            classFilesParsed.increment();
+            bytesRead.add(bytes);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ms (cpu %d ms), %d bytes read, %d class files parsed, %d files scanned, %d skipped, %d exceptions",
+                TimeUnit.NANOSECONDS.toMillis(getWallTime()), TimeUnit.NANOSECONDS.toMillis(getCpuTime()), getBytesRead(),
+                getClassFilesParsed(), getFilesScanned(), getFilesSkipped(), getExceptions());
+        }
+    }
+
+    private static class Cpu {
+        static final ThreadMXBean threads;
+
+        static {
+            ThreadMXBean bean = null;
+            try {
+                bean = ManagementFactory.getThreadMXBean();
+                if (!bean.isCurrentThreadCpuTimeSupported() || !bean.isThreadCpuTimeEnabled()) bean = null;
+            } catch (Throwable e) {
+                bean = null;
+            }
+            threads = bean;
+        }
+    }
+
+    /** JFR events defined reflectively using {@code jdk.jfr.EventFactory}, in order to run on jdks without JFR */
+    private static class Jfr {
+        static final Object urlEvent, scannerEvent;
+        static final Method getEventType, newEvent, isEnabled, set, shouldCommit, commit;
+
+        static {
+            Object urlFactory = null, scannerFactory = null;
+            Method getEventTypeMethod = null, newEventMethod = null, isEnabledMethod = null, setMethod = null, shouldCommitMethod = null, commitMethod = null;
+            try {
+                if (!(Boolean) Class.forName("jdk.jfr.FlightRecorder").getMethod("isAvailable").invoke(null)) throw new IllegalStateException("JFR is not available");
+                urlFactory = eventFactory("org.reflections.UrlScan", "Reflections Url Scan", "url");
+                scannerFactory = eventFactory("org.reflections.ScannerScan", "Reflections Scanner Scan", "scanner");
+                getEventTypeMethod = urlFactory.getClass().getMethod("getEventType");
+                newEventMethod = urlFactory.getClass().getMethod("newEvent");
+                isEnabledMethod = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+                Class<?> event = Class.forName("jdk.jfr.Event");
+                setMethod = event.getMethod("set", int.class, Object.class);
+                shouldCommitMethod = event.getMethod("shouldCommit");
+                commitMethod = event.getMethod("commit");
+            } catch (Throwable e) {
+                urlFactory = scannerFactory = null;
+                if (log != null) log.trace("JFR events are not available", e);
+            }
+            urlEvent = urlFactory;
+            scannerEvent = scannerFactory;
+            getEventType = getEventTypeMethod;
+            newEvent = newEventMethod;
+            isEnabled = isEnabledMethod;
+            set = setMethod;
+            shouldCommit = shouldCommitMethod;
+            commit = commitMethod;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Object eventFactory(String name, String label, String key) throws Exception {
+            Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+            Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+            Constructor<?> annotation = annotationElement.getConstructor(Class.class, Object.class);
+            Constructor<?> value = valueDescriptor.getConstructor(Class.class, String.class);
+
+            List<Object> annotations = Arrays.asList(
+                annotation.newInstance((Class<? extends Annotation>) Class.forName("jdk.jfr.Name"), name),
+                annotation.newInstance((Class<? extends Annotation>) Class.forName("jdk.jfr.Label"), label),
+                annotation.newInstance((Class<? extends Annotation>) Class.forName("jdk.jfr.Category"), new String[] {"Reflections"}));
+            List<Object> fields = new ArrayList<>();
+            fields.add(value.newInstance(String.class, key));
+            for (String field : Arrays.asList("wallTime", "cpuTime", "bytesRead", "classFilesParsed", "filesScanned", "filesSkipped", "exceptions")) {
+                fields.add(value.newInstance(long.class, field));
+            }
+            return Class.forName("jdk.jfr.EventFactory").getMethod("create", List.class, List.class).invoke(null, annotations, fields);
+        }
+
+        static void commit(Object factory, String key, Counters counters) {
+            try {
+                // check the event type is enabled by a recording before creating events
+                if (!(Boolean) isEnabled.invoke(getEventType.invoke(factory))) return;
+                Object event = newEvent.invoke(factory);
+                if (!(Boolean) shouldCommit.invoke(event)) return;
+                Object[] values = {key, counters.getWallTime(), counters.getCpuTime(), counters.getBytesRead(),
+                    counters.getClassFilesParsed(), counters.getFilesScanned(), counters.getFilesSkipped(), counters.getExceptions()};
+                for (int i = 0; i < values.length; i++) set.invoke(event, i, values[i]);
+                commit.invoke(event);
+            } catch (Exception e) {
+                if (log != null) log.trace("could not commit JFR event", e);
+            }
+        }
+    }
+}
@@ -1,13 +1,119 @@
 package org.reflections;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /** stores string key/value pairs per scanner index in a multimap {@code Map<String, Map<String, Set<String>>>}
  * <pre>{@code Set<String> values = reflections.getStore().get("index").get("key")}</pre>
  * <i>{@code Store} multimap is not copy protected, preferably use {@link org.reflections.util.QueryBuilder} to safely rich query the metadata </i> */
 public class Store extends HashMap<String, Map<String, Set<String>>> {
+    private transient volatile Map<String, Map<String, Set<String>>> reverseIndexes;
+
     public Store() {}
     public Store(Map<String, Map<String, Set<String>>> storeMap) { super(storeMap); }
+
+    /** the reverse of the given {@code index}, mapping each value to the keys it is indexed for, such as super types by sub type of {@code SubTypes}.
+     * <p>built lazily once per index, and reset when indexes are put, replaced or removed through this map.
+     * <i>modifying an index map directly, or removing indexes through the {@link #keySet()}, {@link #values()} or {@link #entrySet()} views,
+     * does not reset its reverse, see {@link #resetReverseIndexes()}</i> */
+    public Map<String, Set<String>> getReverse(String index) {
+        Map<String, Map<String, Set<String>>> reverseIndexes = this.reverseIndexes;
+        if (reverseIndexes == null) this.reverseIndexes = reverseIndexes = new ConcurrentHashMap<>();
+        return reverseIndexes.computeIfAbsent(index, i -> {
+            Map<String, Set<String>> reverse = new HashMap<>();
+            getOrDefault(i, Collections.emptyMap()).forEach((key, values) -> {
+                for (String value : values) reverse.computeIfAbsent(value, v -> new HashSet<>()).add(key);
+            });
+            return reverse;
+        });
+    }
+
+    /** discards the reverse indexes, which are then rebuilt on demand */
+    public void resetReverseIndexes() {
+        reverseIndexes = null;
+    }
+
+    @Override
+    public Map<String, Set<String>> put(String key, Map<String, Set<String>> value) {
+        resetReverseIndexes();
+        return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Map<String, Set<String>>> m) {
+        resetReverseIndexes();
+        super.putAll(m);
+    }
+
+    @Override
+    public Map<String, Set<String>> remove(Object key) {
+        resetReverseIndexes();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        resetReverseIndexes();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        resetReverseIndexes();
+        super.clear();
+    }
+
+    @Override
+    public Map<String, Set<String>> putIfAbsent(String key, Map<String, Set<String>> value) {
+        resetReverseIndexes();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean replace(String key, Map<String, Set<String>> oldValue, Map<String, Set<String>> newValue) {
+        resetReverseIndexes();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Map<String, Set<String>> replace(String key, Map<String, Set<String>> value) {
+        resetReverseIndexes();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> function) {
+        resetReverseIndexes();
+        super.replaceAll(function);
+    }
+
+    @Override
+    public Map<String, Set<String>> computeIfAbsent(String key, Function<? super String, ? extends Map<String, Set<String>>> mappingFunction) {
+        resetReverseIndexes();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Map<String, Set<String>> computeIfPresent(String key, BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) {
+        resetReverseIndexes();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Map<String, Set<String>> compute(String key, BiFunction<? super String, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) {
+        resetReverseIndexes();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Map<String, Set<String>> merge(String key, Map<String, Set<String>> value, BiFunction<? super Map<String, Set<String>>, ? super Map<String, Set<String>>, ? extends Map<String, Set<String>>> remappingFunction) {
+        resetReverseIndexes();
+        return super.merge(key, value, remappingFunction);
+    }
 }
@@ -0,0 +1,34 @@
+package org.reflections;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * pool of canonical strings, such that equal keys and values are stored once across all store indexes.
+ * <p>unlike {@link String#intern()}, the pool is scoped to a single scan, merge or collect, and released once done
+ */
+class StringPool {
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+    /** the canonical instance equal to the given {@code string} */
+    @Nullable
+    String get(@Nullable String string) {
+        if (string == null) return null;
+        String canonical = strings.get(string);
+        if (canonical != null) return canonical;
+        canonical = strings.putIfAbsent(string, string);
+        return canonical != null ? canonical : string;
+    }
+
+    /** adds the keys and values of the given {@code storeMap} to the pool, as canonical instances if not pooled yet */
+    void addAll(Map<String, Map<String, Set<String>>> storeMap) {
+        for (Map<String, Set<String>> index : storeMap.values()) {
+            index.forEach((key, values) -> {
+                get(key);
+                values.forEach(this::get);
+            });
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.reflections;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * transitive closure of the {@link org.reflections.scanners.Scanners#SubTypes SubTypes} index, answering transitive queries without traversal
+ * <pre>{@code
+ * TypeClosure closure = reflections.getTypeClosure();
+ * Set<String> entities = closure.getSubTypes("com.example.Entity");
+ * boolean serializable = closure.isSubType("com.example.Order", "java.io.Serializable");
+ * }</pre>
+ * <p>types are numbered in depth first order from the root types, such that a class hierarchy gets mostly contiguous ids.
+ * the transitive sub types and super types of each type are then computed once in topological order,
+ * and kept as bitsets trimmed to the range of ids they span, and empty for leaf types.
+ * <p>the closure is a snapshot of the index it was built from, see {@link org.reflections.util.ConfigurationBuilder#setBuildTypeClosure(boolean)}
+ */
+public class TypeClosure {
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final Bits[] subTypes, superTypes;
+
+    /** builds the closure of the given {@code subTypes} index, of direct sub types by type */
+    public TypeClosure(Map<String, Set<String>> subTypes) {
+        Set<String> roots = new LinkedHashSet<>(subTypes.keySet()), all = new LinkedHashSet<>(subTypes.keySet());
+        subTypes.values().forEach(values -> {
+            roots.removeAll(values);
+            all.addAll(values);
+        });
+        // depth first preorder ids, from the roots and then from any types left in cycles
+        ids = new HashMap<>(all.size() * 2);
+        List<String> names = new ArrayList<>(all.size());
+        for (String root : roots) number(root, subTypes, names);
+        for (String type : all) number(type, subTypes, names);
+        this.names = names.toArray(new String[0]);
+
+        int[][] children = new int[this.names.length][], parents = new int[this.names.length][];
+        List<List<Integer>> parentLists = new ArrayList<>(this.names.length);
+        for (int i = 0; i < this.names.length; i++) parentLists.add(new ArrayList<>(1));
+        for (int id = 0; id < this.names.length; id++) {
+            Set<String> values = subTypes.getOrDefault(this.names[id], Collections.emptySet());
+            children[id] = values.stream().mapToInt(ids::get).toArray();
+            for (int child : children[id]) parentLists.get(child).add(id);
+        }
+        for (int id = 0; id < this.names.length; id++) parents[id] = parentLists.get(id).stream().mapToInt(Integer::intValue).toArray();
+
+        // sub types in post order, such that sub types are computed first, then super types in reverse post order
+        int[] postOrder = postOrder(children);
+        this.subTypes = new Bits[this.names.length];
+        this.superTypes = new Bits[this.names.length];
+        for (int id : postOrder) this.subTypes[id] = Bits.union(children[id], this.subTypes);
+        for (int i = postOrder.length - 1; i >= 0; i--) this.superTypes[postOrder[i]] = Bits.union(parents[postOrder[i]], this.superTypes);
+    }
+
+    private void number(String start, Map<String, Set<String>> subTypes, List<String> names) {
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            String type = stack.pop();
+            if (ids.containsKey(type)) continue;
+            ids.put(type, names.size());
+            names.add(type);
+            List<String> values = new ArrayList<>(subTypes.getOrDefault(type, Collections.emptySet()));
+            for (int i = values.size() - 1; i >= 0; i--) if (!ids.containsKey(values.get(i))) stack.push(values.get(i));
+        }
+    }
+
+    private static int[] postOrder(int[][] children) {
+        int[] order = new int[children.length], next = new int[children.length];
+        boolean[] visited = new boolean[children.length];
+        int size = 0;
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int root = 0; root < children.length; root++) {
+            if (visited[root]) continue;
+            visited[root] = true;
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                int id = stack.peek();
+                if (next[id] < children[id].length) {
+                    int child = children[id][next[id]++];
+                    if (!visited[child]) {
+                        visited[child] = true;
+                        stack.push(child);
+                    }
+                } else {
+                    order[size++] = stack.pop();
+                }
+            }
+        }
+        return order;
+    }
+
+    /** the transitive sub types of the given {@code type}, not including it, in depth first id order */
+    public Set<String> getSubTypes(String type) {
+        Integer id = ids.get(type);
+        return id == null ? Collections.emptySet() : new Names(subTypes[id]);
+    }
+
+    /** the transitive super types of the given {@code type} within the index, not including it, in depth first id order */
+    public Set<String> getSuperTypes(String type) {
+        Integer id = ids.get(type);
+        return id == null ? Collections.emptySet() : new Names(superTypes[id]);
+    }
+
+    /** true if {@code subType} is a transitive sub type of {@code superType} */
+    public boolean isSubType(String subType, String superType) {
+        Integer sub = ids.get(subType), sup = ids.get(superType);
+        return sub != null && sup != null && subTypes[sup].get(sub);
+    }
+
+    /** read only view of the names of the given {@code bits} */
+    private class Names extends AbstractSet<String> {
+        private final Bits bits;
+
+        Names(Bits bits) {
+            this.bits = bits;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer id = ids.get(o);
+            return id != null && bits.get(id);
+        }
+
+        @Override
+        public int size() {
+            return bits.cardinality;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                int id = bits.next(0);
+
+                @Override
+                public boolean hasNext() {
+                    return id >= 0;
+                }
+
+                @Override
+                public String next() {
+                    if (id < 0) throw new NoSuchElementException();
+                    String name = names[id];
+                    id = bits.next(id + 1);
+                    return name;
+                }
+            };
+        }
+    }
+
+    /** a bitset of the words {@code [offset, offset + words.length)} */
+    private static class Bits {
+        static final Bits EMPTY = new Bits(0, new long[0]);
+        final int offset;
+        final long[] words;
+        final int cardinality;
+
+        Bits(int offset, long[] words) {
+            this.offset = offset;
+            this.words = words;
+            int cardinality = 0;
+            for (long word : words) cardinality += Long.bitCount(word);
+            this.cardinality = cardinality;
+        }
+
+        /** the given {@code ids} and their bits in {@code closures}, or the partial closure of an id still being computed in a cycle */
+        static Bits union(int[] ids, Bits[] closures) {
+            if (ids.length == 0) return EMPTY;
+            int from = Integer.MAX_VALUE, to = 0;
+            for (int id : ids) {
+                from = Math.min(from, id >>> 6);
+                to = Math.max(to, (id >>> 6) + 1);
+                Bits bits = closures[id];
+                if (bits != null && bits.words.length > 0) {
+                    from = Math.min(from, bits.offset);
+                    to = Math.max(to, bits.offset + bits.words.length);
+                }
+            }
+            long[] words = new long[to - from];
+            for (int id : ids) {
+                words[(id >>> 6) - from] |= 1L << id;
+                Bits bits = closures[id];
+                if (bits != null) {
+                    for (int i = 0; i < bits.words.length; i++) words[bits.offset - from + i] |= bits.words[i];
+                }
+            }
+            return new Bits(from, words);
+        }
+
+        boolean get(int id) {
+            int word = (id >>> 6) - offset;
+            return word >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+        }
+
+        /** the first id set from the given {@code id}, or -1 */
+        int next(int id) {
+            int word = Math.max(0, (id >>> 6) - offset);
+            if (word >= words.length) return -1;
+            long bits = (id >>> 6) - offset >= 0 ? words[word] & (-1L << id) : words[word];
+            while (true) {
+                if (bits != 0) return ((word + offset) << 6) + Long.numberOfTrailingZeros(bits);
+                if (++word == words.length) return -1;
+                bits = words[word];
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.reflections.scanners;
 
 import javassist.bytecode.ClassFile;
+import org.reflections.util.ClassFileReader;
 
 import java.util.List;
 import java.util.Map;
@@ -18,8 +19,28 @@ class AbstractScanner implements Scanner {
 		return scanner.index();
 	}
 
+	@Override
+	public String cacheKey() {
+		return scanner.cacheKey();
+	}
+
+	@Override
+	public List<String> getConstantPoolPrefixes() {
+		return scanner.getConstantPoolPrefixes();
+	}
+
 	@Override
 	public List<Map.Entry<String, String>> scan(final ClassFile cls) {
 		return scanner.scan(cls);
 	}
+
+	@Override
+	public List<Map.Entry<String, String>> scan(ClassFileReader classFile) {
+		return scanner.scan(classFile);
+	}
+
+	@Override
+	public void scan(ClassFileReader classFile, EntrySink sink) {
+		scanner.scan(classFile, sink);
+	}
 }
@@ -0,0 +1,12 @@
+package org.reflections.scanners;
+
+/**
+ * accumulator of scanned key/values, pushed by a {@link Scanner} straight into its index.
+ * <p>see {@link Scanner#scan(org.reflections.util.ClassFileReader, EntrySink)}
+ */
+@FunctionalInterface
+public interface EntrySink {
+
+    /** accept the given scanned {@code key} and {@code value}. entries with a null key are ignored */
+    void accept(String key, String value);
+}
@@ -15,6 +15,11 @@ import java.util.stream.IntStream;
 
 public class MethodParameterNamesScanner implements Scanner {
 
+    @Override
+    public String cacheKey() {
+        return index();
+    }
+
     @Override
     public List<Map.Entry<String, String>> scan(ClassFile classFile) {
         List<Map.Entry<String, String>> entries = new ArrayList<>();
@@ -1,6 +1,7 @@
 package org.reflections.scanners;
 
 import javassist.bytecode.ClassFile;
+import org.reflections.util.ClassFileReader;
 import org.reflections.vfs.Vfs;
 
 import javax.annotation.Nullable;
@@ -14,6 +15,10 @@ import java.util.stream.Collectors;
 /**
  * Scanner {@link #scan(ClassFile)} method receives a {@link ClassFile} and produce a list of {@link Map.Entry}.
  * These key/values will be stored under {@link #index()} for querying.
+ * <p>Reflections invokes {@link #scan(ClassFileReader, EntrySink)}, which defaults to {@link #scan(ClassFileReader)},
+ * which in turn defaults to {@link #scan(ClassFile)} using a javassist {@link ClassFile}.
+ * Override it in order to scan using the lightweight {@link ClassFileReader} instead,
+ * pushing key/values straight into the {@link EntrySink} without creating entry objects or intermediate lists.
  * <br><br>see more in {@link Scanners}
  * */
 public interface Scanner {
@@ -21,6 +26,21 @@ public interface Scanner {
     /** scan the given {@code classFile} and produces list of {@link Map.Entry} key/values */
     List<Map.Entry<String, String>> scan(ClassFile classFile);
 
+    /** scan the given {@code classFile} and produces list of {@link Map.Entry} key/values
+     * <p>defaults to {@link #scan(ClassFile)} using {@link ClassFileReader#getClassFile()} */
+    default List<Map.Entry<String, String>> scan(ClassFileReader classFile) {
+        return scan(classFile.getClassFile());
+    }
+
+    /** scan the given {@code classFile} and push key/values into the given {@code sink}
+     * <p>defaults to {@link #scan(ClassFileReader)}, adapting its list of {@link Map.Entry} key/values */
+    default void scan(ClassFileReader classFile, EntrySink sink) {
+        List<Map.Entry<String, String>> entries = scan(classFile);
+        if (entries != null) {
+            for (Map.Entry<String, String> entry : entries) sink.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
     /** scan the given {@code file} and produces list of {@link Map.Entry} key/values */
     @Nullable
     default List<Map.Entry<String, String>> scan(Vfs.File file) {
@@ -32,6 +52,20 @@ public interface Scanner {
         return getClass().getSimpleName();
     }
 
+    /** a key identifying this scanner and its configuration, used for reusing cached scan results across runs.
+     * <p>defaults to null, meaning scan results should not be cached */
+    @Nullable
+    default String cacheKey() {
+        return null;
+    }
+
+    /** constant pool utf8 prefixes, at least one of which must be present in a class file for this scanner to produce results from it.
+     * <p>used as a cheap pre-check, skipping class files without any such constant before scanning them. defaults to null, scanning all class files */
+    @Nullable
+    default List<String> getConstantPoolPrefixes() {
+        return null;
+    }
+
     default boolean acceptsInput(String file) {
         return file.endsWith(".class");
     }
@@ -2,16 +2,17 @@ package org.reflections.scanners;
 
 import javassist.bytecode.ClassFile;
 import org.reflections.Store;
+import org.reflections.util.ClassFileReader;
 import org.reflections.util.FilterBuilder;
 import org.reflections.util.NameHelper;
 import org.reflections.util.QueryBuilder;
 import org.reflections.util.QueryFunction;
 import org.reflections.vfs.Vfs;
 
+import javax.annotation.Nullable;
 import java.lang.annotation.Inherited;
 import java.lang.reflect.AnnotatedElement;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -19,8 +20,6 @@ import java.util.Map;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import static org.reflections.util.JavassistHelper.*;
-
 /**
  * base Reflections {@link Scanner}s such as:
  * <ul>
@@ -37,6 +36,7 @@ import static org.reflections.util.JavassistHelper.*;
  *   <li>{@link #MethodsReturn}</li>
  * </ul>
  * <i>note that scanners must be configured in {@link org.reflections.Configuration} in order to be queried</i>
+ * <p>scanning is done over the lightweight {@link ClassFileReader}, without creating a javassist {@link ClassFile}
  * */
 public enum Scanners implements Scanner, QueryBuilder, NameHelper {
 
@@ -50,9 +50,14 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
         { filterResultsBy(new FilterBuilder().excludePattern("java\\.lang\\.Object")); }
 
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            entries.add(entry(classFile.getSuperclass(), classFile.getName()));
-            entries.addAll(entries(Arrays.asList(classFile.getInterfaces()), classFile.getName()));
+        public List<String> getConstantPoolPrefixes() {
+            return resultPrefixes("");
+        }
+
+        @Override
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            sink.accept(classFile.getSuperclass(), classFile.getName());
+            for (String anInterface : classFile.getInterfaces()) sink.accept(anInterface, classFile.getName());
         }
     },
 
@@ -64,35 +69,60 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
         }
 
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            entries.addAll(entries(getAnnotations(classFile::getAttribute), classFile.getName()));
+        public List<String> getConstantPoolPrefixes() {
+            List<String> prefixes = resultPrefixes("L");
+            if (prefixes != null) prefixes.add("L" + Inherited.class.getName().replace('.', '/') + ";");
+            return prefixes;
+        }
+
+        @Override
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (String annotation : classFile.getAnnotations()) sink.accept(annotation, classFile.getName());
         }
     },
 
     /** scan method annotations */
     MethodsAnnotated {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            getMethods(classFile).forEach(method ->
-                entries.addAll(entries(getAnnotations(method::getAttribute), methodName(classFile, method))));
+        public List<String> getConstantPoolPrefixes() {
+            return resultPrefixes("L");
+        }
+
+        @Override
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member method : classFile.getMethods()) {
+                for (String annotation : method.getAnnotations()) sink.accept(annotation, method.getQualifiedName());
+            }
         }
     },
 
     /** scan constructor annotations */
     ConstructorsAnnotated {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            getConstructors(classFile).forEach(constructor ->
-                entries.addAll(entries(getAnnotations(constructor::getAttribute), methodName(classFile, constructor))));
+        public List<String> getConstantPoolPrefixes() {
+            return resultPrefixes("L");
+        }
+
+        @Override
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member constructor : classFile.getConstructors()) {
+                for (String annotation : constructor.getAnnotations()) sink.accept(annotation, constructor.getQualifiedName());
+            }
         }
     },
 
     /** scan field annotations */
     FieldsAnnotated {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            classFile.getFields().forEach(field ->
-                entries.addAll(entries(getAnnotations(field::getAttribute), fieldName(classFile, field))));
+        public List<String> getConstantPoolPrefixes() {
+            return resultPrefixes("L");
+        }
+
+        @Override
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member field : classFile.getFields()) {
+                for (String annotation : field.getAnnotations()) sink.accept(annotation, field.getQualifiedName());
+            }
         }
     },
 
@@ -109,7 +139,7 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
         }
 
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
             throw new IllegalStateException();
         }
 
@@ -124,33 +154,38 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
     /** scan method parameters types and annotations */
     MethodsParameter {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            getMethods(classFile).forEach(method -> {
-                String value = methodName(classFile, method);
-                entries.addAll(entries(getParameters(method), value));
-                getParametersAnnotations(method).forEach(annotations -> entries.addAll(entries(annotations, value)));
-            });
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member method : classFile.getMethods()) {
+                String value = method.getQualifiedName();
+                for (String parameter : method.getParameters()) sink.accept(parameter, value);
+                for (List<String> annotations : method.getParametersAnnotations()) {
+                    for (String annotation : annotations) sink.accept(annotation, value);
+                }
+            }
         }
     },
 
     /** scan constructor parameters types and annotations */
     ConstructorsParameter {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            getConstructors(classFile).forEach(constructor -> {
-                String value = methodName(classFile, constructor);
-                entries.addAll(entries(getParameters(constructor), value));
-                getParametersAnnotations(constructor).forEach(annotations -> entries.addAll(entries(annotations, value)));
-            });
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member constructor : classFile.getConstructors()) {
+                String value = constructor.getQualifiedName();
+                for (String parameter : constructor.getParameters()) sink.accept(parameter, value);
+                for (List<String> annotations : constructor.getParametersAnnotations()) {
+                    for (String annotation : annotations) sink.accept(annotation, value);
+                }
+            }
         }
     },
 
     /** scan methods signature */
     MethodsSignature {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            getMethods(classFile).forEach(method ->
-                entries.add(entry(getParameters(method).toString(), methodName(classFile, method))));
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member method : classFile.getMethods()) {
+                sink.accept(method.getParameters().toString(), method.getQualifiedName());
+            }
         }
 
         @Override
@@ -162,9 +197,10 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
     /** scan constructors signature */
     ConstructorsSignature {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            getConstructors(classFile).forEach(constructor ->
-                entries.add(entry(getParameters(constructor).toString(), methodName(classFile, constructor))));
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member constructor : classFile.getConstructors()) {
+                sink.accept(constructor.getParameters().toString(), constructor.getQualifiedName());
+            }
         }
 
         @Override
@@ -176,13 +212,14 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
     /** scan method return type */
     MethodsReturn {
         @Override
-        public void scan(ClassFile classFile, List<Map.Entry<String, String>> entries) {
-            getMethods(classFile).forEach(method ->
-                entries.add(entry(getReturnType(method), methodName(classFile, method))));
+        void scanEntries(ClassFileReader classFile, EntrySink sink) {
+            for (ClassFileReader.Member method : classFile.getMethods()) {
+                sink.accept(method.getReturnType(), method.getQualifiedName());
+            }
         }
     };
 
-    private Predicate<String> resultFilter = s -> true; //accept all by default
+    private Predicate<String> resultFilter; //accept all by default
 
     @Override
     public String index() {
@@ -194,16 +231,47 @@ public enum Scanners implements Scanner, QueryBuilder, NameHelper {
         return this;
     }
 
+    /** keyed by name and result filter, if accepting all results or filtering by a {@link FilterBuilder} */
+    @Override
+    public String cacheKey() {
+        return resultFilter == null ? name() : resultFilter instanceof FilterBuilder ? name() + " " + resultFilter : null;
+    }
+
+    /** scan the given javassist {@code classFile}, using {@link ClassFileReader#of(ClassFile)}.
+     * <p>kept for compatibility, this writes and reads the class file again, prefer {@link #scan(ClassFileReader, EntrySink)} */
     @Override
     public final List<Map.Entry<String, String>> scan(ClassFile classFile) {
+        return scan(ClassFileReader.of(classFile));
+    }
+
+    @Override
+    public final List<Map.Entry<String, String>> scan(ClassFileReader classFile) {
         List<Map.Entry<String, String>> entries = new ArrayList<>();
-        scan(classFile, entries);
-        return entries.stream().filter(a -> acceptResult(a.getKey())).collect(Collectors.toList());
+        scan(classFile, (key, value) -> {
+            if (key != null) entries.add(entry(key, value));
+        });
+        return entries;
+    }
+
+    /** scan the given {@code classFile}, pushing key/values accepted by the {@link #filterResultsBy(Predicate) result filter} into the given {@code sink} */
+    @Override
+    public final void scan(ClassFileReader classFile, EntrySink sink) {
+        scanEntries(classFile, resultFilter == null ? sink : (key, value) -> {
+            if (acceptResult(key)) sink.accept(key, value);
+        });
     }
 
-    abstract void scan(ClassFile classFile, List<Map.Entry<String, String>> entries);
+    abstract void scanEntries(ClassFileReader classFile, EntrySink sink);
+
+    /** the include prefixes of a {@link FilterBuilder} result filter as constant pool internal names, each starting with {@code descriptor}, or null */
+    @Nullable
+    List<String> resultPrefixes(String descriptor) {
+        List<String> prefixes = resultFilter instanceof FilterBuilder ? ((FilterBuilder) resultFilter).getIncludePrefixes() : null;
+        return prefixes == null ? null :
+            prefixes.stream().map(prefix -> descriptor + prefix.replace('.', '/')).collect(Collectors.toList());
+    }
 
     protected boolean acceptResult(String fqn) {
-        return fqn != null && resultFilter.test(fqn);
+        return fqn != null && (resultFilter == null || resultFilter.test(fqn));
     }
 }
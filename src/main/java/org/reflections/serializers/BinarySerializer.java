@@ -0,0 +1,54 @@
+package org.reflections.serializers;
+
+import org.reflections.MappedStore;
+import org.reflections.Reflections;
+import org.reflections.ReflectionsException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * binary serialization for {@link org.reflections.Reflections} <pre>{@code reflections.save(file, new BinarySerializer())}</pre>
+ * <p>saves the store in the {@link MappedStore} binary format, which is queried in place rather than deserialized.
+ * <p>use {@link #read(Path)} to memory map a saved file, such that opening it is independent of its size and the store is kept off heap
+ * <pre>{@code Reflections reflections = new BinarySerializer().read(path)}</pre>
+ */
+public class BinarySerializer implements Serializer {
+
+    /** reads the input stream into a heap buffer, queried in place */
+    public Reflections read(InputStream inputStream) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = inputStream.read(buffer)) != -1; ) bytes.write(buffer, 0, read);
+            return new Reflections(new MappedStore(ByteBuffer.wrap(bytes.toByteArray())));
+        } catch (Exception e) {
+            throw new ReflectionsException("could not read.", e);
+        }
+    }
+
+    /** memory maps the given saved {@code file} */
+    public Reflections read(Path file) {
+        try {
+            return new Reflections(MappedStore.open(file));
+        } catch (Exception e) {
+            throw new ReflectionsException("could not read " + file, e);
+        }
+    }
+
+    public File save(Reflections reflections, String filename) {
+        File file = Serializer.prepareFile(filename);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            MappedStore.write(reflections.getStore(), out);
+        } catch (Exception e) {
+            throw new ReflectionsException("could not save to file " + filename, e);
+        }
+        return file;
+    }
+}
@@ -6,7 +6,7 @@ import java.io.File;
 import java.io.InputStream;
 
 /** de/serialization for {@link org.reflections.Reflections} instance metadata
- * <p>see {@link XmlSerializer}, {@link JsonSerializer}, {@link JavaCodeSerializer} */
+ * <p>see {@link XmlSerializer}, {@link JsonSerializer}, {@link JavaCodeSerializer}, {@link BinarySerializer} */
 public interface Serializer {
     /** reads the input stream into a new Reflections instance, populating it's store */
     Reflections read(InputStream inputStream);
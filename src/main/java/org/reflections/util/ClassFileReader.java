@@ -0,0 +1,481 @@
+package org.reflections.util;
+
+import javassist.bytecode.ClassFile;
+import org.reflections.ReflectionsException;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * lightweight streaming class file reader, used by {@link org.reflections.scanners.Scanners} instead of javassist {@link ClassFile}
+ * <p>only the constant pool offsets and the class header (name, superclass and interfaces) are read eagerly.
+ * constant pool utf8 entries are decoded on demand, and fields, methods and annotations attributes are read
+ * only once requested, skipping code and any other attribute.
+ * <p>use {@link #getClassFile()} to fallback into a full javassist {@link ClassFile}, for example by {@link org.reflections.scanners.MemberUsageScanner}
+ * <pre>{@code
+ * ClassFileReader classFile = ClassFileReader.read(inputStream);
+ * String superclass = classFile.getSuperclass();
+ * List<String> annotations = classFile.getAnnotations();
+ * }</pre>
+ */
+public class ClassFileReader {
+	private static final String VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+	private static final String INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+	private static final String VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+	private static final String INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
+
+	private final ByteBuffer buffer;
+	private final int[] offsets;
+	private final String[] utf8;
+	private final int accessFlags;
+	private final int thisClass;
+	private final int superClass;
+	private final int interfacesOffset;
+	private final int membersOffset;
+
+	private List<Member> fields;
+	private List<Member> methods;
+	private List<Member> declaredMethods;
+	private List<Member> constructors;
+	private int visibleAnnotations;
+	private int invisibleAnnotations;
+	private ClassFile classFile;
+
+	public ClassFileReader(byte[] bytes) {
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	/** reads the class file header from the given {@code buffer}, starting at its current position */
+	public ClassFileReader(ByteBuffer buffer) {
+		this.buffer = buffer.slice();
+		try {
+			if (this.buffer.getInt(0) != 0xCAFEBABE) throw new ReflectionsException("not a class file, bad magic number");
+			int count = u2(8);
+			offsets = new int[count];
+			utf8 = new String[count];
+			int pos = 10;
+			for (int i = 1; i < count; i++) {
+				offsets[i] = pos;
+				int tag = this.buffer.get(pos);
+				switch (tag) {
+					case 1: pos += 3 + u2(pos + 1); break; // Utf8
+					case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18: pos += 5; break;
+					case 5: case 6: pos += 9; i++; break; // Long, Double take two slots
+					case 7: case 8: case 16: case 19: case 20: pos += 3; break;
+					case 15: pos += 4; break; // MethodHandle
+					default: throw new ReflectionsException("unknown constant pool tag " + tag + " at " + pos);
+				}
+			}
+			accessFlags = u2(pos);
+			thisClass = u2(pos + 2);
+			superClass = u2(pos + 4);
+			interfacesOffset = pos + 6;
+			membersOffset = interfacesOffset + 2 + 2 * u2(interfacesOffset);
+		} catch (IndexOutOfBoundsException e) {
+			throw new ReflectionsException("truncated class file", e);
+		}
+	}
+
+	/** reads the given {@code inputStream} fully and creates a {@link ClassFileReader} over it. does not close the stream. */
+	public static ClassFileReader read(InputStream inputStream) throws IOException {
+		return new ClassFileReader(toByteArray(inputStream, 4096));
+	}
+
+	/** the fully qualified class name, for example {@code a.b.C$D} */
+	public String getName() {
+		return className(thisClass);
+	}
+
+	/** the fully qualified superclass name, or null for {@code java.lang.Object} and {@code module-info} */
+	@Nullable
+	public String getSuperclass() {
+		return superClass != 0 ? className(superClass) : null;
+	}
+
+	/** the fully qualified names of the directly implemented interfaces */
+	public List<String> getInterfaces() {
+		int count = u2(interfacesOffset);
+		List<String> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) result.add(className(u2(interfacesOffset + 2 + 2 * i)));
+		return result;
+	}
+
+	public int getAccessFlags() {
+		return accessFlags;
+	}
+
+	public boolean isPublic() {
+		return Modifier.isPublic(accessFlags);
+	}
+
+	/** all declared fields */
+	public List<Member> getFields() {
+		readMembers();
+		return fields;
+	}
+
+	/** all declared methods and constructors, including static initializer */
+	public List<Member> getAllMethods() {
+		readMembers();
+		return methods;
+	}
+
+	/** declared methods, excluding constructors and static initializer */
+	public List<Member> getMethods() {
+		readMembers();
+		return declaredMethods;
+	}
+
+	/** declared constructors and static initializer, similar to {@link JavassistHelper#getConstructors(ClassFile)} */
+	public List<Member> getConstructors() {
+		readMembers();
+		return constructors;
+	}
+
+	/** class annotation names, invisible annotations are included according to {@link JavassistHelper#includeInvisibleTag} */
+	public List<String> getAnnotations() {
+		readMembers();
+		return annotations(visibleAnnotations, invisibleAnnotations);
+	}
+
+	/** number of entries in the constant pool, including the unusable 0 index and long/double second slots */
+	public int getConstantPoolSize() {
+		return offsets.length;
+	}
+
+	/** the length of the class file in bytes */
+	public int getLength() {
+		return buffer.limit();
+	}
+
+	/** the decoded utf8 constant at the given {@code index}, or null if it is not a utf8 entry */
+	@Nullable
+	public String getUtf8(int index) {
+		if (index <= 0 || index >= offsets.length || offsets[index] == 0 || buffer.get(offsets[index]) != 1) return null;
+		return utf8(index);
+	}
+
+	/** true if any utf8 constant starts with any of the given {@code prefixes}, compared as raw bytes without decoding.
+	 * <p>prefixes should be in modified utf8, which is the same as plain utf8 for non null characters in the basic multilingual plane */
+	public boolean hasUtf8Prefix(byte[]... prefixes) {
+		for (int i = 1; i < offsets.length; i++) {
+			int offset = offsets[i];
+			if (offset == 0 || buffer.get(offset) != 1) continue;
+			int length = u2(offset + 1);
+			for (byte[] prefix : prefixes) {
+				if (prefix.length <= length && startsWith(offset + 3, prefix)) return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean startsWith(int offset, byte[] prefix) {
+		for (int j = 0; j < prefix.length; j++) {
+			if (buffer.get(offset + j) != prefix[j]) return false;
+		}
+		return true;
+	}
+
+	/** converts this class file into a full javassist {@link ClassFile}, created once on first call */
+	public ClassFile getClassFile() {
+		if (classFile == null) {
+			ByteBuffer duplicate = buffer.duplicate();
+			((Buffer) duplicate).clear();
+			byte[] bytes = new byte[duplicate.remaining()];
+			duplicate.get(bytes);
+			try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes))) {
+				classFile = new ClassFile(dis);
+			} catch (IOException e) {
+				throw new ReflectionsException("could not create javassist class file " + getName(), e);
+			}
+		}
+		return classFile;
+	}
+
+	/** creates a {@link ClassFileReader} from the given javassist {@code classFile}.
+	 * <p>the class file is written back into bytes which are then read again, such that a class parsed by javassist is parsed twice.
+	 * prefer reading class files with {@link #read(InputStream)} or {@link #ClassFileReader(ByteBuffer)} */
+	public static ClassFileReader of(ClassFile classFile) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			classFile.write(out);
+		} catch (IOException e) {
+			throw new ReflectionsException("could not write javassist class file " + classFile.getName(), e);
+		}
+		ClassFileReader reader = new ClassFileReader(bytes.toByteArray());
+		reader.classFile = classFile;
+		return reader;
+	}
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	/** a field or method of a class file */
+	public class Member {
+		private final boolean isField;
+		private final int accessFlags;
+		private final int nameIndex;
+		private final int descriptorIndex;
+		private int visibleAnnotations;
+		private int invisibleAnnotations;
+		private int visibleParameterAnnotations;
+		private int invisibleParameterAnnotations;
+
+		private Member(boolean isField, int accessFlags, int nameIndex, int descriptorIndex) {
+			this.isField = isField;
+			this.accessFlags = accessFlags;
+			this.nameIndex = nameIndex;
+			this.descriptorIndex = descriptorIndex;
+		}
+
+		public String getName() {
+			return utf8(nameIndex);
+		}
+
+		public String getDescriptor() {
+			return utf8(descriptorIndex);
+		}
+
+		public int getAccessFlags() {
+			return accessFlags;
+		}
+
+		public boolean isPublic() {
+			return Modifier.isPublic(accessFlags);
+		}
+
+		public boolean isStatic() {
+			return Modifier.isStatic(accessFlags);
+		}
+
+		/** true if this is a method other than a constructor or static initializer */
+		public boolean isMethod() {
+			if (isField) return false;
+			String name = getName();
+			return !name.equals("<init>") && !name.equals("<clinit>");
+		}
+
+		/** field or method qualified name, for example {@code a.b.C.f} and {@code a.b.C.m(int, java.lang.String[])},
+		 * similar to {@link JavassistHelper#fieldName} and {@link JavassistHelper#methodName} */
+		public String getQualifiedName() {
+			return isField ? ClassFileReader.this.getName() + "." + getName() :
+				ClassFileReader.this.getName() + "." + getName() + "(" + String.join(", ", getParameters()) + ")";
+		}
+
+		/** method parameter type names, similar to {@link JavassistHelper#getParameters} */
+		public List<String> getParameters() {
+			String descriptor = getDescriptor();
+			List<String> result = new ArrayList<>();
+			int pos = 1;
+			while (descriptor.charAt(pos) != ')') {
+				int end = descriptorEnd(descriptor, pos);
+				result.add(descriptorName(descriptor, pos, end));
+				pos = end;
+			}
+			return result;
+		}
+
+		/** method return type name, similar to {@link JavassistHelper#getReturnType} */
+		public String getReturnType() {
+			String descriptor = getDescriptor();
+			int pos = descriptor.lastIndexOf(')') + 1;
+			return descriptorName(descriptor, pos, descriptor.length());
+		}
+
+		/** annotation names, invisible annotations are included according to {@link JavassistHelper#includeInvisibleTag} */
+		public List<String> getAnnotations() {
+			return annotations(visibleAnnotations, invisibleAnnotations);
+		}
+
+		/** annotation names per parameter, similar to {@link JavassistHelper#getParametersAnnotations} */
+		public List<List<String>> getParametersAnnotations() {
+			List<List<String>> visible = parameterAnnotations(visibleParameterAnnotations);
+			if (!JavassistHelper.includeInvisibleTag || invisibleParameterAnnotations == 0) return visible;
+			List<List<String>> invisible = parameterAnnotations(invisibleParameterAnnotations);
+			List<List<String>> result = new ArrayList<>();
+			for (int i = 0; i < Math.max(visible.size(), invisible.size()); i++) {
+				List<String> concat = new ArrayList<>();
+				if (i < visible.size()) concat.addAll(visible.get(i));
+				if (i < invisible.size()) concat.addAll(invisible.get(i));
+				result.add(concat);
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return getQualifiedName();
+		}
+	}
+
+	private void readMembers() {
+		if (methods != null) return;
+		int pos = membersOffset;
+		List<Member> fields = new ArrayList<>(u2(pos));
+		pos = readMembers(pos, true, fields);
+		List<Member> methods = new ArrayList<>(u2(pos));
+		pos = readMembers(pos, false, methods);
+		int count = u2(pos);
+		pos += 2;
+		for (int i = 0; i < count; i++) {
+			String name = utf8(u2(pos));
+			if (VISIBLE_ANNOTATIONS.equals(name)) visibleAnnotations = pos + 6;
+			else if (INVISIBLE_ANNOTATIONS.equals(name)) invisibleAnnotations = pos + 6;
+			pos += 6 + buffer.getInt(pos + 2);
+		}
+		List<Member> declaredMethods = new ArrayList<>(methods.size()), constructors = new ArrayList<>(2);
+		for (Member method : methods) (method.isMethod() ? declaredMethods : constructors).add(method);
+		this.fields = fields;
+		this.declaredMethods = declaredMethods;
+		this.constructors = constructors;
+		this.methods = methods;
+	}
+
+	private int readMembers(int pos, boolean isField, List<Member> members) {
+		int count = u2(pos);
+		pos += 2;
+		for (int i = 0; i < count; i++) {
+			Member member = new Member(isField, u2(pos), u2(pos + 2), u2(pos + 4));
+			int attributes = u2(pos + 6);
+			pos += 8;
+			for (int j = 0; j < attributes; j++) {
+				String name = utf8(u2(pos));
+				if (VISIBLE_ANNOTATIONS.equals(name)) member.visibleAnnotations = pos + 6;
+				else if (INVISIBLE_ANNOTATIONS.equals(name)) member.invisibleAnnotations = pos + 6;
+				else if (VISIBLE_PARAMETER_ANNOTATIONS.equals(name)) member.visibleParameterAnnotations = pos + 6;
+				else if (INVISIBLE_PARAMETER_ANNOTATIONS.equals(name)) member.invisibleParameterAnnotations = pos + 6;
+				pos += 6 + buffer.getInt(pos + 2);
+			}
+			members.add(member);
+		}
+		return pos;
+	}
+
+	private List<String> annotations(int visible, int invisible) {
+		List<String> result = new ArrayList<>();
+		if (visible != 0) readAnnotations(visible, result);
+		if (invisible != 0 && JavassistHelper.includeInvisibleTag) readAnnotations(invisible, result);
+		return result;
+	}
+
+	private List<List<String>> parameterAnnotations(int offset) {
+		if (offset == 0) return Collections.emptyList();
+		int parameters = buffer.get(offset) & 0xff;
+		List<List<String>> result = new ArrayList<>(parameters);
+		int pos = offset + 1;
+		for (int i = 0; i < parameters; i++) {
+			List<String> names = new ArrayList<>();
+			pos = readAnnotations(pos, names);
+			result.add(names);
+		}
+		return result;
+	}
+
+	/** reads annotation type names of an annotations table, returns the offset after the table */
+	private int readAnnotations(int pos, List<String> names) {
+		int count = u2(pos);
+		pos += 2;
+		for (int i = 0; i < count; i++) {
+			String descriptor = utf8(u2(pos));
+			names.add(descriptorName(descriptor, 0, descriptor.length()));
+			pos = skipAnnotation(pos);
+		}
+		return pos;
+	}
+
+	private int skipAnnotation(int pos) {
+		int pairs = u2(pos + 2);
+		pos += 4;
+		for (int i = 0; i < pairs; i++) pos = skipElementValue(pos + 2);
+		return pos;
+	}
+
+	private int skipElementValue(int pos) {
+		char tag = (char) buffer.get(pos);
+		switch (tag) {
+			case 'e': return pos + 5;
+			case '@': return skipAnnotation(pos + 1);
+			case '[':
+				int count = u2(pos + 1);
+				pos += 3;
+				for (int i = 0; i < count; i++) pos = skipElementValue(pos);
+				return pos;
+			default: return pos + 3;
+		}
+	}
+
+	private String className(int classIndex) {
+		return utf8(u2(offsets[classIndex] + 1)).replace('/', '.');
+	}
+
+	private String utf8(int index) {
+		String s = utf8[index];
+		if (s == null) utf8[index] = s = decodeUtf8(offsets[index] + 1);
+		return s;
+	}
+
+	/** decodes modified utf8 at the given offset of a u2 length prefixed byte array */
+	private String decodeUtf8(int offset) {
+		int pos = offset + 2, end = pos + u2(offset), n = 0;
+		char[] chars = new char[end - pos];
+		while (pos < end) {
+			int b = buffer.get(pos++) & 0xff;
+			if (b < 0x80) chars[n++] = (char) b;
+			else if ((b & 0xe0) == 0xc0) chars[n++] = (char) (((b & 0x1f) << 6) | (buffer.get(pos++) & 0x3f));
+			else chars[n++] = (char) (((b & 0x0f) << 12) | ((buffer.get(pos++) & 0x3f) << 6) | (buffer.get(pos++) & 0x3f));
+		}
+		return new String(chars, 0, n);
+	}
+
+	private int u2(int pos) {
+		return buffer.getShort(pos) & 0xffff;
+	}
+
+	private static int descriptorEnd(String descriptor, int pos) {
+		while (descriptor.charAt(pos) == '[') pos++;
+		return descriptor.charAt(pos) == 'L' ? descriptor.indexOf(';', pos) + 1 : pos + 1;
+	}
+
+	/** field descriptor to type name, for example {@code [Ljava/lang/String;} to {@code java.lang.String[]}, similar to javassist {@code Descriptor.toString} */
+	private static String descriptorName(String descriptor, int pos, int end) {
+		int dim = 0;
+		while (descriptor.charAt(pos) == '[') { dim++; pos++; }
+		char c = descriptor.charAt(pos);
+		String name = c == 'L' ? descriptor.substring(pos + 1, end - 1).replace('/', '.') :
+			NameHelper.primitiveNames.get(NameHelper.primitiveDescriptors.indexOf(String.valueOf(c)));
+		if (dim == 0) return name;
+		StringBuilder builder = new StringBuilder(name.length() + 2 * dim).append(name);
+		for (int i = 0; i < dim; i++) builder.append("[]");
+		return builder.toString();
+	}
+
+	/** reads all remaining bytes of the given {@code inputStream}, starting with a buffer of {@code sizeHint} bytes */
+	private static byte[] toByteArray(InputStream inputStream, int sizeHint) throws IOException {
+		byte[] bytes = new byte[Math.max(sizeHint, 64)];
+		int length = 0, read;
+		while ((read = inputStream.read(bytes, length, bytes.length - length)) != -1) {
+			length += read;
+			if (length == bytes.length) {
+				int next = inputStream.read();
+				if (next == -1) break;
+				bytes = Arrays.copyOf(bytes, bytes.length * 2);
+				bytes[length++] = (byte) next;
+			}
+		}
+		return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+	}
+}
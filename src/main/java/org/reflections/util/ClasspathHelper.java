@@ -7,17 +7,24 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLDecoder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -154,6 +161,44 @@ public abstract class ClasspathHelper {
         return null;
     }
     
+    /**
+     * Returns a distinct collection of URLs of the named modules in the java runtime image.
+     * <p>
+     * This finds the URLs using the {@code jrt:/} file system, such as {@code jrt:/java.base}.
+     * If no module names are specified, then the URLs of all modules in the runtime image are returned.
+     * <p>
+     * Modules that are not found are skipped. On java 8, which has no runtime image, no URLs are returned.
+     *
+     * @return the collection of URLs, not null
+     */
+    public static Collection<URL> forModules(String... modules) {
+        if (modules.length == 0) return forModules(module -> true);
+        Set<String> names = new HashSet<>(Arrays.asList(modules));
+        return forModules(names::contains);
+    }
+
+    /**
+     * Returns a distinct collection of URLs of the modules in the java runtime image accepted by the given {@code modulesFilter}.
+     * <p>
+     * See {@link #forModules(String...)}
+     *
+     * @return the collection of URLs, not null
+     */
+    public static Collection<URL> forModules(Predicate<String> modulesFilter) {
+        final Collection<URL> urls = new ArrayList<>();
+        try (DirectoryStream<Path> modules = Files.newDirectoryStream(FileSystems.getFileSystem(URI.create("jrt:/")).getPath("/modules"))) {
+            for (Path module : modules) {
+                String name = module.getFileName().toString();
+                if (modulesFilter.test(name)) urls.add(new URL("jrt:/" + name));
+            }
+        } catch (Exception e) {
+            if (Reflections.log != null) {
+                Reflections.log.warn("Could not get modules of the java runtime image", e);
+            }
+        }
+        return distinctUrls(urls);
+    }
+
     /**
      * Returns a distinct collection of URLs based on URLs derived from class loaders.
      * <p>
@@ -0,0 +1,226 @@
+package org.reflections.util;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * compiled form of a {@link FilterBuilder} chain of includes and excludes.
+ * <p>literal rules such as {@link FilterBuilder#includePackage(String)} are compiled into a prefix trie, walked once per value,
+ * while other patterns are combined into a single regex per includes and excludes, matched at most once each.
+ * <p>the chain accepts a value if the first rule is an exclude, or some include matches, and no exclude after the first such include matches.
+ * the compiled filter therefore evaluates the first matching include and the last matching exclude.
+ * <p>{@link #testPath(String)} evaluates a slash separated path as both path and fqn, without replacing slashes with dots
+ */
+class CompiledFilter implements Predicate<String> {
+    private final FilterBuilder filterBuilder;
+    private final boolean acceptFirst;
+    private final Node trie = new Node();
+    @Nullable private final Pattern includes, excludes;
+    private final int[] includeRules, excludeRules;
+    private final String[] includeGroups, excludeGroups;
+    private final boolean compiled;
+    // per rule literal or null if a pattern, whether a prefix literal, and whether an include
+    private final String[] ruleLiterals;
+    private final boolean[] rulePrefixes, ruleIncludes;
+
+    CompiledFilter(FilterBuilder filterBuilder, List<Predicate<String>> chain) {
+        this.filterBuilder = filterBuilder;
+        this.acceptFirst = chain.isEmpty() || chain.get(0) instanceof FilterBuilder.Exclude;
+        List<Integer> includeRules = new ArrayList<>(), excludeRules = new ArrayList<>();
+        StringBuilder includes = new StringBuilder(), excludes = new StringBuilder();
+        boolean compiled = true;
+        ruleLiterals = new String[chain.size()];
+        rulePrefixes = new boolean[chain.size()];
+        ruleIncludes = new boolean[chain.size()];
+        for (int rule = 0; rule < chain.size() && compiled; rule++) {
+            Predicate<String> filter = chain.get(rule);
+            if (!(filter instanceof FilterBuilder.Include) && !(filter instanceof FilterBuilder.Exclude)) {
+                compiled = false; // custom predicates are evaluated by the chain
+                continue;
+            }
+            boolean include = ruleIncludes[rule] = filter instanceof FilterBuilder.Include;
+            String regex = ((FilterBuilder.Matcher) filter).pattern.pattern();
+            StringBuilder literal = new StringBuilder();
+            String rest = FilterBuilder.literal(regex, literal);
+            if (rest.isEmpty() || rest.equals(".*")) {
+                trie.add(literal, rule, include, !rest.isEmpty());
+                ruleLiterals[rule] = literal.toString();
+                rulePrefixes[rule] = !rest.isEmpty();
+            } else if (regex.matches(".*\\\\[0-9k].*")) {
+                compiled = false; // back references can not be combined into a single regex
+            } else if (include) {
+                includes.append(includes.length() > 0 ? "|" : "").append("(?<r").append(rule).append(">").append(regex).append(")");
+                includeRules.add(rule);
+            } else {
+                // excludes are combined in reverse order, such that the matching alternative is the last matching exclude
+                excludes.insert(0, "(?<r" + rule + ">" + regex + ")" + (excludes.length() > 0 ? "|" : ""));
+                excludeRules.add(0, rule);
+            }
+        }
+        this.compiled = compiled;
+        this.includes = compiled && includes.length() > 0 ? Pattern.compile(includes.toString()) : null;
+        this.excludes = compiled && excludes.length() > 0 ? Pattern.compile(excludes.toString()) : null;
+        this.includeRules = includeRules.stream().mapToInt(Integer::intValue).toArray();
+        this.excludeRules = excludeRules.stream().mapToInt(Integer::intValue).toArray();
+        this.includeGroups = includeRules.stream().map(rule -> "r" + rule).toArray(String[]::new);
+        this.excludeGroups = excludeRules.stream().map(rule -> "r" + rule).toArray(String[]::new);
+    }
+
+    @Override
+    public boolean test(String value) {
+        return compiled ? test(value, false) : filterBuilder.testChain(value);
+    }
+
+    /** equivalent to {@code test(path) || test(path.replace('/', '.'))} */
+    boolean testPath(String path) {
+        if (!compiled) return filterBuilder.testChain(path) || path.indexOf('/') >= 0 && filterBuilder.testChain(path.replace('/', '.'));
+        return test(path, false) || path.indexOf('/') >= 0 && test(path, true);
+    }
+
+    /** false if no path within the given slash separated {@code dirPath}, as path or as fqn, can be accepted */
+    boolean testDir(String dirPath) {
+        return !compiled || testDir(dirPath, false) || testDir(dirPath, true);
+    }
+
+    private boolean testDir(String dirPath, boolean fqn) {
+        boolean accept = acceptFirst;
+        int start = -1;
+        if (!accept) {
+            // the last possible first matching include, which is at most the first include matching all paths within the dir
+            for (int rule = 0; rule < ruleIncludes.length; rule++) {
+                if (!ruleIncludes[rule]) continue;
+                int matches = matchesWithin(rule, dirPath, fqn);
+                if (matches >= 0) {
+                    accept = true;
+                    start = rule;
+                    if (matches > 0) break;
+                }
+            }
+        }
+        if (!accept) return false;
+        for (int rule = start + 1; rule < ruleIncludes.length; rule++) {
+            if (!ruleIncludes[rule] && matchesWithin(rule, dirPath, fqn) > 0) return false;
+        }
+        return true;
+    }
+
+    /** whether the given {@code rule} matches all (1), some (0) or none (-1) of the paths within the given {@code dirPath} */
+    private int matchesWithin(int rule, String dirPath, boolean fqn) {
+        String literal = ruleLiterals[rule];
+        if (literal == null) return 0;
+        int length = Math.min(literal.length(), dirPath.length());
+        for (int i = 0; i < length; i++) {
+            char c = dirPath.charAt(i);
+            if ((fqn && c == '/' ? '.' : c) != literal.charAt(i)) return -1;
+        }
+        return literal.length() > dirPath.length() ? 0 : rulePrefixes[rule] ? 1 : -1;
+    }
+
+    private boolean test(String value, boolean fqn) {
+        int firstInclude = Integer.MAX_VALUE, lastExclude = -1;
+        Node node = trie;
+        for (int i = 0; ; i++) {
+            firstInclude = Math.min(firstInclude, node.prefixInclude);
+            lastExclude = Math.max(lastExclude, node.prefixExclude);
+            if (i == value.length()) {
+                firstInclude = Math.min(firstInclude, node.exactInclude);
+                lastExclude = Math.max(lastExclude, node.exactExclude);
+                break;
+            }
+            char c = value.charAt(i);
+            node = node.child(fqn && c == '/' ? '.' : c);
+            if (node == null) break;
+        }
+
+        if (includes != null && !acceptFirst) {
+            firstInclude = Math.min(firstInclude, matchingRule(includes, includeRules, includeGroups, value, fqn, Integer.MAX_VALUE));
+        }
+        // accepted from the start, or from the first matching include
+        int start = acceptFirst ? -1 : firstInclude;
+        if (start == Integer.MAX_VALUE) return false;
+        if (excludes != null) lastExclude = Math.max(lastExclude, matchingRule(excludes, excludeRules, excludeGroups, value, fqn, -1));
+        return lastExclude <= start;
+    }
+
+    /** the rule of the matching alternative of the given combined {@code pattern}, or {@code none} if no alternative matches */
+    private static int matchingRule(Pattern pattern, int[] rules, String[] groups, String value, boolean fqn, int none) {
+        Matcher matcher = pattern.matcher(fqn ? new FqnSequence(value, 0, value.length()) : value);
+        if (matcher.matches()) {
+            for (int i = 0; i < rules.length; i++) {
+                if (matcher.start(groups[i]) >= 0) return rules[i];
+            }
+        }
+        return none;
+    }
+
+    private static class Node {
+        char[] chars = new char[0];
+        Node[] children = new Node[0];
+        int prefixInclude = Integer.MAX_VALUE, exactInclude = Integer.MAX_VALUE, prefixExclude = -1, exactExclude = -1;
+
+        void add(CharSequence literal, int rule, boolean include, boolean prefix) {
+            Node node = this;
+            for (int i = 0; i < literal.length(); i++) {
+                Node next = node.child(literal.charAt(i));
+                if (next == null) {
+                    int size = node.chars.length;
+                    node.chars = Arrays.copyOf(node.chars, size + 1);
+                    node.children = Arrays.copyOf(node.children, size + 1);
+                    node.chars[size] = literal.charAt(i);
+                    next = node.children[size] = new Node();
+                }
+                node = next;
+            }
+            if (include && prefix) node.prefixInclude = Math.min(node.prefixInclude, rule);
+            else if (include) node.exactInclude = Math.min(node.exactInclude, rule);
+            else if (prefix) node.prefixExclude = Math.max(node.prefixExclude, rule);
+            else node.exactExclude = Math.max(node.exactExclude, rule);
+        }
+
+        @Nullable
+        Node child(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) return children[i];
+            }
+            return null;
+        }
+    }
+
+    /** a view of a slash separated path as fqn, replacing slashes with dots */
+    private static class FqnSequence implements CharSequence {
+        private final String path;
+        private final int start, end;
+
+        FqnSequence(String path, int start, int end) {
+            this.path = path;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            char c = path.charAt(start + index);
+            return c == '/' ? '.' : c;
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new FqnSequence(path, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return path.substring(start, end).replace('/', '.');
+        }
+    }
+}
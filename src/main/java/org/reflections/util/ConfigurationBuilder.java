@@ -2,10 +2,12 @@ package org.reflections.util;
 
 import org.reflections.Configuration;
 import org.reflections.ReflectionsException;
+import org.reflections.ScanListener;
 import org.reflections.scanners.Scanner;
 import org.reflections.scanners.Scanners;
 
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -13,6 +15,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -40,9 +43,21 @@ public class ConfigurationBuilder implements Configuration {
     private Set<Scanner> scanners;
     private Set<URL> urls;
     private Predicate<String> inputsFilter;
+    private Predicate<String> modulesFilter;
     private boolean isParallel = true;
+    private ExecutorService executorService;
+    private int pipelineReaders, pipelineScanners, pipelineIndexers;
+    private boolean virtualThreads = false;
+    private boolean isIncremental = false;
+    private Path cacheDir;
+    private ScanListener scanListener;
+    private boolean retainStore = true;
     private ClassLoader[] classLoaders;
     private boolean expandSuperTypes = true;
+    private boolean buildTypeClosure = false;
+    private boolean concurrentStore = false;
+    private int queryCacheSize = 0;
+    private boolean collectStatistics = false;
 
     public ConfigurationBuilder() {
         urls = new HashSet<>();
@@ -119,6 +134,11 @@ public class ConfigurationBuilder implements Configuration {
         return this;
     }
 
+    /** {@link #addUrls(Collection)} by applying {@link ClasspathHelper#forModules(String...)} for the given {@code modules} of the java runtime image */
+    public ConfigurationBuilder forModules(String... modules) {
+        return addUrls(ClasspathHelper.forModules(modules));
+    }
+
     @Override
     /* @inherited */
     public Set<Scanner> getScanners() {
@@ -192,6 +212,20 @@ public class ConfigurationBuilder implements Configuration {
         return setInputsFilter(inputsFilter);
     }
 
+    @Override
+    /* @inherited */
+    public Predicate<String> getModulesFilter() {
+        return modulesFilter;
+    }
+
+    /** sets the module name filter for {@code jrt:} urls, such as {@code new FilterBuilder().includePackage("java").excludePattern("java\\.desktop")}.
+     * <p>the runtime image url {@code jrt:/} is then scanned as a url per accepted module, and module urls such as {@code jrt:/java.base} are skipped if not accepted.
+     * <p>see {@link ClasspathHelper#forModules(String...)} */
+    public ConfigurationBuilder setModulesFilter(Predicate<String> modulesFilter) {
+        this.modulesFilter = modulesFilter;
+        return this;
+    }
+
     @Override
     /* @inherited */
     public boolean isParallel() {
@@ -204,6 +238,130 @@ public class ConfigurationBuilder implements Configuration {
         return this;
     }
 
+    @Override
+    /* @inherited */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /** set the executor used for parallel scanning instead of the {@link java.util.concurrent.ForkJoinPool#commonPool()}, and sets parallel to true.
+     * <p>large jars and directories are split into batches of files, each scanned as a separate task on this executor.
+     * <p>the executor is not shut down by Reflections */
+    public ConfigurationBuilder setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        if (executorService != null) isParallel = true;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public int getPipelineReaders() {
+        return pipelineReaders;
+    }
+
+    @Override
+    /* @inherited */
+    public int getPipelineScanners() {
+        return pipelineScanners;
+    }
+
+    @Override
+    /* @inherited */
+    public int getPipelineIndexers() {
+        return pipelineIndexers;
+    }
+
+    /** scan in a pipeline of {@code readers} threads reading file bytes, {@code scanners} threads parsing and scanning,
+     * and {@code indexers} threads collecting the results, connected by bounded queues.
+     * <p>separates I/O from parsing, useful for network mounted file systems and cold page caches.
+     * <p>when pipelined, {@link #setParallel(boolean)} and {@link #setExecutorService(ExecutorService)} are not used.
+     * <p>{@code setPipelined(0, 0, 0)} disables the pipeline */
+    public ConfigurationBuilder setPipelined(int readers, int scanners, int indexers) {
+        boolean disabled = readers == 0 && scanners == 0 && indexers == 0;
+        if (!disabled && (readers < 1 || scanners < 1 || indexers < 1)) {
+            throw new ReflectionsException("pipeline stages should have at least one thread each, or none to disable the pipeline");
+        }
+        this.pipelineReaders = readers;
+        this.pipelineScanners = scanners;
+        this.pipelineIndexers = indexers;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /** if true and supported by the runtime (java 21+), scan in a pipeline opening and reading each url and file batch on its own virtual thread,
+     * and parsing and scanning on platform threads sized to the number of cores.
+     * <p>useful for many small jars and directories, where blocking I/O rather than parsing bounds the scan.
+     * on older runtimes, urls are scanned as configured otherwise.
+     * <p>when using virtual threads, {@link #setParallel(boolean)} and {@link #setExecutorService(ExecutorService)} are not used,
+     * and {@link #setPipelined(int, int, int)} takes precedence.
+     * <p>{@link #setIncremental(boolean) incremental} scans do not use virtual threads, and scan as configured otherwise */
+    public ConfigurationBuilder setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean isIncremental() {
+        return isIncremental;
+    }
+
+    /** if true, keep a fingerprint and the scanned metadata of each url, so that {@link org.reflections.Reflections#rescan()} rescans only urls that changed.
+     * <p>jar files and directories are fingerprinted by their entries, other urls are always rescanned.
+     * <p>incremental scans are not pipelined, see {@link #setPipelined(int, int, int)} and {@link #setVirtualThreads(boolean)}
+     * <p>the metadata of each url is kept apart from the merged store, so the maps and sets of the store are held twice in memory,
+     * while their key and value strings are shared */
+    public ConfigurationBuilder setIncremental(boolean incremental) {
+        isIncremental = incremental;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public Path getCacheDir() {
+        return cacheDir;
+    }
+
+    /** set a directory for caching the scanned metadata of each jar file url, keyed by the jar content, scanners and inputs filter.
+     * <p>on the next run, unchanged jars are loaded from the cache instead of being scanned.
+     * <p>jars are not cached if any scanner has no {@link Scanner#cacheKey()}, or if the inputs filter is not a {@link FilterBuilder}.
+     * the cache is not used for pipelined scans, see {@link #setPipelined(int, int, int)} */
+    public ConfigurationBuilder setCacheDir(Path cacheDir) {
+        this.cacheDir = cacheDir;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public ScanListener getScanListener() {
+        return scanListener;
+    }
+
+    /** set a listener receiving {@code (index, key, value, url)} of each entry as it is scanned, allowing to start working during the scan.
+     * <p>see {@link ScanListener} */
+    public ConfigurationBuilder setScanListener(ScanListener scanListener) {
+        this.scanListener = scanListener;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean shouldRetainStore() {
+        return retainStore;
+    }
+
+    /** if set to false, scanned entries are only passed to the {@link #setScanListener(ScanListener) scan listener}, and the store remains empty.
+     * <p>saves memory when there is no need to query after scanning. incremental scan and scan cache are not used then */
+    public ConfigurationBuilder setRetainStore(boolean retainStore) {
+        this.retainStore = retainStore;
+        return this;
+    }
+
     @Override
     /* @inherited */
     public ClassLoader[] getClassLoaders() {
@@ -236,4 +394,68 @@ public class ConfigurationBuilder implements Configuration {
         this.expandSuperTypes = expandSuperTypes;
         return this;
     }
+
+    @Override
+    /* @inherited */
+    public boolean shouldBuildTypeClosure() {
+        return buildTypeClosure;
+    }
+
+    /** if set to true, Reflections will build the transitive closure of the sub types index once after scanning,
+     * such that {@link org.reflections.Reflections#getSubTypesOf(Class)} and {@link org.reflections.TypeClosure} queries do not traverse the index.
+     * <p>useful for repeated queries of wide type hierarchies, at the cost of building and keeping the closure.
+     * <p>see {@link org.reflections.Reflections#getTypeClosure()} */
+    public ConfigurationBuilder setBuildTypeClosure(boolean buildTypeClosure) {
+        this.buildTypeClosure = buildTypeClosure;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean isConcurrentStore() {
+        return concurrentStore;
+    }
+
+    /** if set to true, merging metadata into Reflections, by {@link org.reflections.Reflections#collect(java.io.InputStream, org.reflections.serializers.Serializer) collect},
+     * {@link org.reflections.Reflections#merge(org.reflections.Reflections) merge} or {@link org.reflections.Reflections#rescan() rescan},
+     * publishes a new version of the store which shares the unchanged indexes and values of the previous one, instead of modifying it in place.
+     * <p>useful for merging while other threads query the same instance, as each query reads one consistent version without locking.
+     * merges and rescans are serialized among themselves.
+     * <p>each merge copies every index it changes in full, so that merging costs the size of the changed indexes rather than of the merged metadata,
+     * and merged strings are not canonicalized against the existing store. */
+    public ConfigurationBuilder setConcurrentStore(boolean concurrentStore) {
+        this.concurrentStore = concurrentStore;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public int getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    /** if set to a positive size, Reflections caches the results of up to {@code queryCacheSize} recently used queries,
+     * such as {@link org.reflections.Reflections#getSubTypesOf(Class)} and {@link org.reflections.Reflections#getTypesAnnotatedWith(Class)},
+     * keyed by the query method and its arguments, and returns cached results as read only sets.
+     * <p>useful for frameworks repeating the same queries, which would otherwise recompute the result and reload its classes each time.
+     * <p>see {@link org.reflections.Reflections#getQueryCache()} */
+    public ConfigurationBuilder setQueryCacheSize(int queryCacheSize) {
+        if (queryCacheSize < 0) throw new ReflectionsException("query cache size should not be negative");
+        this.queryCacheSize = queryCacheSize;
+        return this;
+    }
+
+    @Override
+    /* @inherited */
+    public boolean shouldCollectStatistics() {
+        return collectStatistics;
+    }
+
+    /** if set to true, Reflections collects {@link org.reflections.ScanStatistics} of each scan, such as times, bytes read and files scanned per url and per scanner,
+     * and commits them as JFR events if recording.
+     * <p>see {@link org.reflections.Reflections#getStatistics()} */
+    public ConfigurationBuilder setCollectStatistics(boolean collectStatistics) {
+        this.collectStatistics = collectStatistics;
+        return this;
+    }
 }
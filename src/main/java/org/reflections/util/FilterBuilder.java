@@ -2,6 +2,7 @@ package org.reflections.util;
 
 import org.reflections.ReflectionsException;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -23,6 +24,7 @@ import java.util.stream.Collectors;
  */
 public class FilterBuilder implements Predicate<String> {
     private final List<Predicate<String>> chain = new ArrayList<>();
+    private transient volatile CompiledFilter compiled;
 
     public FilterBuilder() {}
 
@@ -90,10 +92,34 @@ public class FilterBuilder implements Predicate<String> {
 
     public FilterBuilder add(Predicate<String> filter) {
         chain.add(filter);
+        compiled = null;
         return this;
     }
 
+    /** evaluates the chain of includes and excludes, using its {@link CompiledFilter compiled form} */
     public boolean test(String regex) {
+        return compiled().test(regex);
+    }
+
+    /** evaluates the given slash separated {@code path} either as path or as fqn, without replacing slashes with dots.
+     * <p>equivalent to {@code test(path) || test(path.replace('/', '.'))} */
+    public boolean testPath(String path) {
+        return compiled().testPath(path);
+    }
+
+    /** false if no path within the given slash separated {@code dirPath}, as path or as fqn, can be accepted.
+     * <p>used for skipping excluded directories, for example {@code new FilterBuilder().includePackage("a.b").testDir("c/")} is false */
+    public boolean testDir(String dirPath) {
+        return compiled().testDir(dirPath);
+    }
+
+    private CompiledFilter compiled() {
+        CompiledFilter compiled = this.compiled;
+        if (compiled == null) this.compiled = compiled = new CompiledFilter(this, chain);
+        return compiled;
+    }
+
+    boolean testChain(String regex) {
         boolean accept = chain.isEmpty() || chain.get(0) instanceof Exclude;
 
         for (Predicate<String> filter : chain) {
@@ -105,6 +131,46 @@ public class FilterBuilder implements Predicate<String> {
         return accept;
     }
 
+    /** literal prefixes, one of which any accepted value must start with, or null if there are none.
+     * <p>for example, {@code new FilterBuilder().includePackage("a.b").excludePackage("a.b.c")} only accepts values starting with {@code "a.b."}.
+     * <p>prefixes can be derived if the chain starts with an include, and includes are literal prefix patterns such as {@link #includePackage(String)} */
+    @Nullable
+    public List<String> getIncludePrefixes() {
+        if (chain.isEmpty() || !(chain.get(0) instanceof Include)) return null;
+        List<String> prefixes = new ArrayList<>();
+        for (Predicate<String> filter : chain) {
+            if (filter instanceof Include) {
+                String prefix = literalPrefix(((Include) filter).pattern.pattern());
+                if (prefix == null) return null;
+                prefixes.add(prefix);
+            } else if (!(filter instanceof Exclude)) return null;
+        }
+        return prefixes;
+    }
+
+    /** the literal prefix of a {@code regex} of the form {@code literal.*}, or null */
+    @Nullable
+    private static String literalPrefix(String regex) {
+        StringBuilder prefix = new StringBuilder();
+        String rest = literal(regex, prefix);
+        return rest.isEmpty() || rest.equals(".*") ? prefix.toString() : null;
+    }
+
+    /** parses the literal prefix of a {@code regex} into {@code literal}, returning the remaining regex */
+    static String literal(String regex, StringBuilder literal) {
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length() && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                literal.append(regex.charAt(++i));
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '/') {
+                literal.append(c);
+            } else {
+                return regex.substring(i);
+            }
+        }
+        return "";
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,87 @@
+package org.reflections.util;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link QueryFunction} over a stream of elements, which is fused with the streams of the queries it is composed of.
+ * <p>intermediate elements may contain duplicates, which are removed once by {@link #apply(Object)} or {@link #stream(Object)}
+ */
+class LazyQueryFunction<C, T> implements QueryFunction<C, T> {
+	private final Function<C, Stream<T>> elements;
+
+	LazyQueryFunction(Function<C, Stream<T>> elements) {
+		this.elements = elements;
+	}
+
+	@Override
+	public Set<T> apply(C ctx) {
+		return elements.apply(ctx).collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	@Override
+	public Stream<T> stream(C ctx) {
+		return elements.apply(ctx).distinct();
+	}
+
+	/** the elements of the given {@code query}, possibly with duplicates if lazy, otherwise of its materialized set */
+	static <C, T> Stream<T> elements(Function<C, ? extends Collection<? extends T>> query, C ctx) {
+		//noinspection unchecked
+		return query instanceof LazyQueryFunction ?
+			((LazyQueryFunction<C, T>) query).elements.apply(ctx) :
+			(Stream<T>) query.apply(ctx).stream();
+	}
+
+	/** transitive elements built from the given {@code keys}, in breadth first order, traversing each element once it is first seen */
+	static <T, R> Stream<R> getAll(Iterator<T> keys, Function<T, Stream<R>> builder, Function<R, T> traverse) {
+		Iterator<R> iterator = new Iterator<R>() {
+			final Set<R> result = new HashSet<>();
+			final Deque<T> workKeys = new ArrayDeque<>();
+			Iterator<R> values = Collections.emptyIterator();
+			R next;
+			boolean hasNext;
+
+			@Override
+			public boolean hasNext() {
+				while (!hasNext) {
+					if (values.hasNext()) {
+						R value = values.next();
+						if (result.add(value)) {
+							workKeys.add(traverse.apply(value));
+							next = value;
+							hasNext = true;
+						}
+					} else if (keys.hasNext()) {
+						values = builder.apply(keys.next()).iterator();
+					} else if (!workKeys.isEmpty()) {
+						values = builder.apply(workKeys.poll()).iterator();
+					} else {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public R next() {
+				if (!hasNext()) throw new NoSuchElementException();
+				hasNext = false;
+				return next;
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.DISTINCT), false);
+	}
+}
@@ -5,7 +5,6 @@ import org.reflections.Store;
 import java.lang.reflect.AnnotatedElement;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -16,11 +15,29 @@ public interface QueryBuilder extends NameHelper {
 
 	/** direct values indexed for {@code key} String
 	 * <p>safely returns an empty {@code Set<String>} if {@code index/key} not found
-	 * <p>this is the only function accessing the {@link Store} multimap */
+	 * <p>this and {@link #reverse(String)} are the only functions accessing the {@link Store} multimap */
 	default QueryFunction<Store, String> get(String key) {
-		return store -> new LinkedHashSet<>(store.getOrDefault(index(), Collections.emptyMap()).getOrDefault(key, Collections.emptySet()));
+		return QueryFunction.lazy(store -> store.getOrDefault(index(), Collections.emptyMap()).getOrDefault(key, Collections.emptySet()).stream());
 	}
 
+	// reverse/reverseAll
+	/** direct keys indexed with {@code value} String, using the {@link Store#getReverse(String) reverse index}
+	 * <pre>{@code SubTypes.reverse(type)} for direct super types, {@code TypesAnnotated.reverse(type)} for direct annotations</pre>
+	 * <p>safely returns an empty {@code Set<String>} if {@code index/value} not found */
+	default QueryFunction<Store, String> reverse(String value) {
+		return QueryFunction.lazy(store -> store.getReverse(index()).getOrDefault(value, Collections.emptySet()).stream());
+	}
+
+	/** direct keys indexed with {@code AnnotatedElement}, using the reverse index */
+	default QueryFunction<Store, String> reverse(AnnotatedElement element) { return reverse(toName(element)); }
+
+	/** transitive keys indexed with {@code value} String, using the reverse index, not including {@code value}
+	 * <pre>{@code SubTypes.reverseAll(type)} for all super types in the store</pre> */
+	default QueryFunction<Store, String> reverseAll(String value) { return QueryFunction.<Store, String>single(value).getAll(this::reverse); }
+
+	/** transitive keys indexed with {@code AnnotatedElement}, using the reverse index, not including */
+	default QueryFunction<Store, String> reverseAll(AnnotatedElement element) { return reverseAll(toName(element)); }
+
 	// get/getAll/getAllIncluding
 	/** direct values indexed for {@code AnnotatedElement} */
 	default QueryFunction<Store, String> get(AnnotatedElement element) { return get(toName(element)); }
@@ -3,21 +3,22 @@ package org.reflections.util;
 import org.reflections.Store;
 
 import java.lang.reflect.AnnotatedElement;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * sam function for store query {@code apply(C) -> Set<T>}
  * <pre>{@code QueryFunction<T> query = ctx -> ctx.get(key) }</pre>
  * <p>supports functional composition {@link #filter(Predicate)}, {@link #map(Function)}, {@link #flatMap(Function)}, ...
+ * <p>composed queries are evaluated lazily as one fused stream, and are materialized into a set only by {@link #apply(Object)},
+ * or not at all when using {@link #stream(Object)} with a short circuiting or counting terminal operation such as
+ * <pre>{@code Optional<Class<?>> first = reflections.stream(SubTypes.of(type).asClass()).findFirst()}</pre>
  */
 public interface QueryFunction<C, T> extends Function<C, Set<T>>, NameHelper {
 	/* @inherited */
@@ -27,19 +28,33 @@ public interface QueryFunction<C, T> extends Function<C, Set<T>>, NameHelper {
 	static <C, T> QueryFunction<Store, T> single(T element) { return ctx -> Collections.singleton(element); }
 	static <C, T> QueryFunction<Store, T> set(Collection<T> elements) { return ctx -> new LinkedHashSet<>(elements); }
 
+	/** lazy query of the elements streamed by the given {@code elements} function, which may contain duplicates
+	 * <pre>{@code QueryFunction<Store, String> query = QueryFunction.lazy(store -> store.get(index).keySet().stream())}</pre> */
+	static <C, T> QueryFunction<C, T> lazy(Function<C, Stream<T>> elements) { return new LazyQueryFunction<>(elements); }
+
+	/** lazily evaluated distinct elements of this query, without materializing intermediate sets of composed queries
+	 * <pre>{@code boolean any = SubTypes.of(type).filter(withPrefix("org")).stream(store).findAny().isPresent()}</pre>
+	 * <p>the stream reads the given {@code ctx} as it is when consumed, and should be consumed before modifying it */
+	default Stream<T> stream(C ctx) { return apply(ctx).stream(); }
+
+	/** limit to the first {@code maxSize} elements, evaluating only as many elements as needed <pre>{@code SubTypes.of(type).limit(10)}</pre>*/
+	default QueryFunction<C, T> limit(long maxSize) {
+		return lazy(ctx -> stream(ctx).limit(maxSize));
+	}
+
 	/** filter by predicate <pre>{@code SubTypes.of(type).filter(withPrefix("org"))}</pre>*/
 	default QueryFunction<C, T> filter(Predicate<? super T> predicate) {
-		return ctx -> apply(ctx).stream().filter(predicate).collect(Collectors.toCollection(LinkedHashSet::new));
+		return lazy(ctx -> LazyQueryFunction.elements(this, ctx).filter(predicate));
 	}
 
 	/** map by function <pre>{@code TypesAnnotated.with(annotation).asClass().map(Annotation::annotationType)}</pre>*/
 	default <R> QueryFunction<C, R> map(Function<? super T, ? extends R> function) {
-		return ctx -> apply(ctx).stream().map(function).collect(Collectors.toCollection(LinkedHashSet::new));
+		return lazy(ctx -> LazyQueryFunction.elements(this, ctx).map(function));
 	}
 
 	/** flatmap by function <pre>{@code QueryFunction<Method> methods = SubTypes.of(type).asClass().flatMap(Methods::of)}</pre> */
 	default <R> QueryFunction<C, R> flatMap(Function<T, ? extends Function<C, Set<R>>> function) {
-		return ctx -> apply(ctx).stream().flatMap(t -> function.apply(t).apply(ctx).stream()).collect(Collectors.toCollection(LinkedHashSet::new));
+		return lazy(ctx -> LazyQueryFunction.elements(this, ctx).distinct().flatMap(t -> LazyQueryFunction.elements(function.apply(t), ctx)));
 	}
 
 	/** transitively get all by {@code builder} <pre>{@code SuperTypes.of(type).getAll(Annotations::get)}</pre>*/
@@ -49,53 +64,42 @@ public interface QueryFunction<C, T> extends Function<C, Set<T>>, NameHelper {
 
 	/** transitively get all by {@code builder} <pre>{@code SuperTypes.of(type).getAll(Annotations::get)}</pre>*/
 	default <R> QueryFunction<C, R> getAll(Function<T, QueryFunction<C, R>> builder, Function<R, T> traverse) {
-		return ctx -> {
-			List<T> workKeys = new ArrayList<>(apply(ctx));
-			Set<R> result = new LinkedHashSet<>();
-			for (int i = 0; i < workKeys.size(); i++) {
-				T key = workKeys.get(i);
-				Set<R> apply = builder.apply(key).apply(ctx);
-				for (R r : apply) if (result.add(r)) workKeys.add(traverse.apply(r));
-			}
-			return result;
-		};
+		return lazy(ctx -> LazyQueryFunction.getAll(LazyQueryFunction.elements(this, ctx).distinct().iterator(), key -> LazyQueryFunction.elements(builder.apply(key), ctx), traverse));
 	}
 
 	/** concat elements from function <pre>{@code Annotations.of(method).add(Annotations.of(type))}</pre>*/
 	default <R> QueryFunction<C, T> add(QueryFunction<C, T> function) {
-		return ctx -> Stream.of(apply(ctx), function.apply(ctx))
-			.flatMap(Collection::stream).collect(Collectors.toCollection(LinkedHashSet::new));
+		return lazy(ctx -> Stream.concat(LazyQueryFunction.elements(this, ctx), LazyQueryFunction.elements(function, ctx)));
 	}
 
 	/** convert to given {@code type}, uses {@link NameHelper#forName(java.lang.String, java.lang.Class, java.lang.ClassLoader...)}
-	 * <pre>{@code Methods.of(type).as(Method.class)}</pre>*/
+	 * <pre>{@code Methods.of(type).as(Method.class)}</pre>
+	 * <p>each element is converted by its own type, either kept if of the given {@code type}, or looked up by its name, skipping elements not found */
 	default <R> QueryFunction<C, R> as(Class<? extends R> type, ClassLoader... loaders) {
-		return ctx -> {
-			Set<T> apply = apply(ctx);
-			//noinspection unchecked
-			return (Set<R>) apply.stream().findFirst().map(first ->
-				type.isAssignableFrom(first.getClass()) ? apply :
-				first instanceof String ? ((Set<R>) forNames((Collection<String>) apply, type, loaders)) :
-				first instanceof AnnotatedElement ? ((Set<R>) forNames(toNames((Collection<AnnotatedElement>) apply), type, loaders)) :
-					apply.stream().map(t -> (R) t).collect(Collectors.toCollection(LinkedHashSet::new))
-			).orElse(apply);
-		};
+		//noinspection unchecked
+		return lazy(ctx -> LazyQueryFunction.elements(this, ctx).map(t ->
+				type.isInstance(t) ? (R) t :
+				t instanceof String ? (R) forName((String) t, type, loaders) :
+				t instanceof AnnotatedElement ? (R) forName(toName((AnnotatedElement) t), type, loaders) :
+					(R) t)
+			.filter(Objects::nonNull));
 	}
 
 	/** convert elements to {@code Class} using {@link NameHelper#forName(java.lang.String, java.lang.Class, java.lang.ClassLoader...)}
 	 * <pre>{@code SubTypes.of(type).asClass()}</pre> */
 	default <R> QueryFunction<C, Class<?>> asClass(ClassLoader... loaders) {
-		// noinspection unchecked
-		return ctx -> ((Set<Class<?>>) forNames((Set) apply(ctx), Class.class, loaders));
+		return lazy(ctx -> LazyQueryFunction.elements(this, ctx)
+			.<Class<?>>map(name -> forName((String) name, Class.class, loaders)).filter(Objects::nonNull));
 	}
 
 	/** convert elements to String using {@link NameHelper#toName(AnnotatedElement)}*/
 	default QueryFunction<C, String> asString() {
-		return ctx -> new LinkedHashSet<>(toNames((AnnotatedElement) apply(ctx)));
+		return lazy(ctx -> LazyQueryFunction.elements(this, ctx).map(element -> toName((AnnotatedElement) element)));
 	}
 
 	/** cast elements as {@code <R>} unsafe */
 	default <R> QueryFunction<C, Class<? extends R>> as() {
-		return ctx -> new LinkedHashSet<>((Set<? extends Class<R>>) apply(ctx));
+		//noinspection unchecked
+		return lazy(ctx -> LazyQueryFunction.elements(this, ctx).map(t -> (Class<? extends R>) t));
 	}
 }
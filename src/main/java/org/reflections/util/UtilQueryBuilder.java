@@ -4,9 +4,7 @@ import org.reflections.ReflectionUtils;
 import org.reflections.Store;
 
 import java.lang.reflect.AnnotatedElement;
-import java.util.LinkedHashSet;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * query builder for {@link QueryFunction}
@@ -29,7 +27,6 @@ public interface UtilQueryBuilder<F, E> {
 
 	/** compose given function */
 	default <T> QueryFunction<Store, E> of(QueryFunction<Store, T> function) {
-		return store -> function.apply(store).stream()
-			.flatMap(t -> get((F) t).apply(store).stream()).collect(Collectors.toCollection(LinkedHashSet::new));
+		return function.flatMap(t -> get((F) t));
 	}
 }
@@ -0,0 +1,138 @@
+package org.reflections.vfs;
+
+import org.reflections.ReflectionsException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * an implementation of {@link org.reflections.vfs.Vfs.Dir} for the java runtime image, using the {@code jrt:/} file system of java 9+.
+ * <p>a module url such as {@code jrt:/java.base} is a dir over the module, while {@code jrt:/} is a dir over all modules of the image.
+ * relative paths are relative to the module, such as {@code java/lang/Object.class}.
+ * <p>{@link #getFileBatches(int, Vfs.PathFilter) file batches} are listed per module in parallel, and never span more than one module
+ */
+public class JrtDir implements Vfs.Dir {
+    private final String path;
+    private final List<Path> modules;
+    private final String subPath;
+
+    public JrtDir(URL url) throws IOException {
+        this(url, module -> true);
+    }
+
+    /** a dir over the modules of the given jrt {@code url} accepted by the given {@code modulesFilter} */
+    public JrtDir(URL url, Predicate<String> modulesFilter) throws IOException {
+        if (!"jrt".equals(url.getProtocol())) throw new ReflectionsException("not a jrt url " + url);
+        this.path = url.getPath();
+        String module = getModuleName(url);
+        String subPath = path.substring(Math.min(path.length(), module.length() + 1));
+        this.subPath = subPath.startsWith("/") ? subPath.substring(1) : subPath;
+        Path root = jrt().getPath("/modules");
+        if (module.isEmpty()) {
+            modules = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+                for (Path path : stream) {
+                    if (modulesFilter.test(path.getFileName().toString())) modules.add(path);
+                }
+            }
+        } else {
+            Path modulePath = root.resolve(module);
+            if (!Files.isDirectory(modulePath)) throw new ReflectionsException("could not find module " + module + " in " + url);
+            modules = modulesFilter.test(module) ? Collections.singletonList(modulePath) : Collections.emptyList();
+        }
+    }
+
+    /** the module name of the given jrt {@code url}, or an empty string for the whole runtime image {@code jrt:/} */
+    public static String getModuleName(URL url) {
+        String path = url.getPath();
+        int start = path.startsWith("/") ? 1 : 0, end = path.indexOf('/', start);
+        return path.substring(start, end < 0 ? path.length() : end);
+    }
+
+    /** the jrt file system, throws if not supported by the runtime such as java 8 */
+    static FileSystem jrt() {
+        return FileSystems.getFileSystem(URI.create("jrt:/"));
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Iterable<Vfs.File> getFiles() {
+        return getFiles(Vfs.PathFilter.ALL);
+    }
+
+    @Override
+    public Iterable<Vfs.File> getFiles(Vfs.PathFilter filter) {
+        List<Vfs.File> files = new ArrayList<>();
+        for (Path module : modules) files.addAll(walk(module, filter));
+        return files;
+    }
+
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize) {
+        return getFileBatches(batchSize, Vfs.PathFilter.ALL);
+    }
+
+    /** files accepted by the given {@code filter} partitioned into batches per module.
+     * <p>modules are walked in parallel on the fork join pool of the calling task, if any, such as the configured scan executor,
+     * and sequentially otherwise */
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize, Vfs.PathFilter filter) {
+        return (ForkJoinTask.inForkJoinPool() ? modules.parallelStream() : modules.stream())
+            .flatMap(module -> Vfs.partition(walk(module, filter), batchSize).stream())
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean appliesPathFilter() {
+        return true;
+    }
+
+    private List<Vfs.File> walk(Path module, Vfs.PathFilter filter) {
+        List<Vfs.File> files = new ArrayList<>();
+        String moduleName = module.getFileName().toString();
+        Path start = subPath.isEmpty() ? module : module.resolve(subPath);
+        if (!Files.exists(start)) return files;
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                    String dirPath = module.relativize(dir).toString();
+                    return dirPath.isEmpty() || filter.acceptsDir(dirPath + "/") ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    String relativePath = module.relativize(file).toString();
+                    if (attributes.isRegularFile() && filter.acceptsFile(relativePath)) files.add(new JrtFile(moduleName, file, relativePath));
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    @Override
+    public String toString() {
+        return "jrt:" + path;
+    }
+}
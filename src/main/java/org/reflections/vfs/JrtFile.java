@@ -0,0 +1,43 @@
+package org.reflections.vfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** an implementation of {@link org.reflections.vfs.Vfs.File} for a file of a module in the java runtime image, see {@link JrtDir} */
+public class JrtFile implements Vfs.File {
+    private final String module;
+    private final Path path;
+    private final String relativePath;
+
+    JrtFile(String module, Path path, String relativePath) {
+        this.module = module;
+        this.path = path;
+        this.relativePath = relativePath;
+    }
+
+    public String getName() {
+        return path.getFileName().toString();
+    }
+
+    public String getRelativePath() {
+        return relativePath;
+    }
+
+    public InputStream openInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    /** the file contents, read at once from the runtime image */
+    @Override
+    public ByteBuffer getByteBuffer() throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+
+    @Override
+    public String toString() {
+        return "jrt:/" + module + "/" + relativePath;
+    }
+}
@@ -0,0 +1,145 @@
+package org.reflections.vfs;
+
+import org.reflections.ReflectionsException;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * an implementation of {@link org.reflections.vfs.Vfs.Dir} for a jar nested in a jar file, such as {@code jar:file:app.jar!/BOOT-INF/lib/x.jar!/}
+ * <p>the outer jar is memory mapped and its central directory parsed, in order to locate the inner jar.
+ * the mapping and its entries are cached per outer jar file, and softly referenced, such that the inner jars of the same outer jar share them.
+ * a stored inner jar is then read in place from the mapping, while a deflated inner jar is inflated once into memory.
+ * the central directory of the inner jar is parsed into random access {@link NestedJarFile}s, which can be read concurrently.
+ */
+public class NestedJarDir implements Vfs.Dir {
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50, CENTRAL_DIRECTORY = 0x02014b50;
+    private static final Map<String, SoftReference<Map<String, NestedJarFile>>> outerJars = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final List<Vfs.File> files = new ArrayList<>();
+
+    public NestedJarDir(URL url) throws IOException {
+        String externalForm = url.toExternalForm();
+        int outerEnd = externalForm.indexOf(".jar!/") + ".jar".length();
+        int innerEnd = externalForm.indexOf("!/", outerEnd + 2);
+        if (outerEnd < ".jar".length() || innerEnd < 0) throw new ReflectionsException("not a nested jar url " + url);
+        String innerName = URLDecoder.decode(externalForm.substring(outerEnd + 2, innerEnd).replace("+", "%2B"), "UTF-8");
+        File outerFile = Vfs.getFile(url);
+        if (outerFile == null || !outerFile.isFile()) throw new ReflectionsException("could not find outer jar file of " + url);
+        this.path = outerFile.getPath().replace("\\", "/") + "!/" + innerName;
+
+        NestedJarFile inner = outerEntries(outerFile).get(innerName);
+        if (inner == null) throw new ReflectionsException("could not find " + innerName + " in " + outerFile);
+
+        for (NestedJarFile entry : entries(path, inner.read())) {
+            if (!entry.getRelativePath().endsWith("/")) files.add(entry);
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Iterable<Vfs.File> getFiles() {
+        return files;
+    }
+
+    /** files of entries accepted by the given {@code filter} */
+    @Override
+    public Iterable<Vfs.File> getFiles(Vfs.PathFilter filter) {
+        return filter == Vfs.PathFilter.ALL ? files : filter(filter);
+    }
+
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize) {
+        return Vfs.partition(files, batchSize);
+    }
+
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize, Vfs.PathFilter filter) {
+        return Vfs.partition(filter == Vfs.PathFilter.ALL ? files : filter(filter), batchSize);
+    }
+
+    @Override
+    public boolean appliesPathFilter() {
+        return true;
+    }
+
+    private List<Vfs.File> filter(Vfs.PathFilter filter) {
+        return files.stream().filter(file -> filter.acceptsFile(file.getRelativePath())).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /** the entries of the given {@code outerFile} by name, cached until the file is modified or the cache is collected */
+    private static Map<String, NestedJarFile> outerEntries(File outerFile) throws IOException {
+        String key = outerFile.getAbsolutePath() + ":" + outerFile.lastModified() + ":" + outerFile.length();
+        SoftReference<Map<String, NestedJarFile>> reference = outerJars.get(key);
+        Map<String, NestedJarFile> entries = reference != null ? reference.get() : null;
+        if (entries == null) {
+            String outerPath = outerFile.getPath().replace("\\", "/");
+            entries = new HashMap<>();
+            for (NestedJarFile entry : entries(outerPath, map(outerFile))) entries.put(entry.getRelativePath(), entry);
+            outerJars.values().removeIf(ref -> ref.get() == null);
+            outerJars.put(key, new SoftReference<>(entries));
+        }
+        return entries;
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new ReflectionsException("jar file too large to map " + file);
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /** parses the central directory of the given {@code zip} buffer into its entries, of the dir with the given {@code dirPath} */
+    private static List<NestedJarFile> entries(String dirPath, ByteBuffer zip) {
+        ByteBuffer buffer = zip.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        // the end of central directory record is followed by a comment of up to 65535 bytes
+        int end = buffer.limit() - 22, min = Math.max(0, end - 0xffff);
+        while (end >= min && buffer.getInt(end) != END_OF_CENTRAL_DIRECTORY) end--;
+        if (end < min) throw new ReflectionsException("not a zip file, end of central directory not found");
+        int count = buffer.getShort(end + 10) & 0xffff;
+        long size = buffer.getInt(end + 12) & 0xffffffffL, offset = buffer.getInt(end + 16) & 0xffffffffL;
+        if (count == 0xffff || size == 0xffffffffL || offset == 0xffffffffL) throw new ReflectionsException("zip64 is not supported");
+        // offsets are relative to the start of the zip, which may be preceded by other data such as a launch script
+        int base = (int) (end - size - offset);
+
+        List<NestedJarFile> entries = new ArrayList<>(count);
+        int pos = (int) (base + offset);
+        for (int i = 0; i < count; i++) {
+            if (buffer.getInt(pos) != CENTRAL_DIRECTORY) throw new ReflectionsException("bad central directory entry at " + pos);
+            int method = buffer.getShort(pos + 10) & 0xffff;
+            int compressedSize = buffer.getInt(pos + 20), uncompressedSize = buffer.getInt(pos + 24);
+            int nameLength = buffer.getShort(pos + 28) & 0xffff, extraLength = buffer.getShort(pos + 30) & 0xffff, commentLength = buffer.getShort(pos + 32) & 0xffff;
+            int localHeader = base + buffer.getInt(pos + 42);
+            byte[] name = new byte[nameLength];
+            ByteBuffer nameBuffer = buffer.duplicate();
+            ((Buffer) nameBuffer).position(pos + 46);
+            nameBuffer.get(name);
+            entries.add(new NestedJarFile(dirPath, zip, new String(name, StandardCharsets.UTF_8), method, localHeader, compressedSize, uncompressedSize));
+            pos += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+}
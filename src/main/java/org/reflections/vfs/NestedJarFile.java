@@ -0,0 +1,139 @@
+package org.reflections.vfs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/** an implementation of {@link org.reflections.vfs.Vfs.File} for an entry of a {@link NestedJarDir}, read in place from the jar buffer */
+public class NestedJarFile implements Vfs.File {
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int MAX_POOLED_INFLATERS = Runtime.getRuntime().availableProcessors();
+    private static final Queue<Inflation> inflations = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger pooledInflations = new AtomicInteger();
+
+    private final String dirPath;
+    private final ByteBuffer zip;
+    private final String name;
+    private final int method, localHeader, compressedSize, size;
+
+    NestedJarFile(String dirPath, ByteBuffer zip, String name, int method, int localHeader, int compressedSize, int size) {
+        this.dirPath = dirPath;
+        this.zip = zip;
+        this.name = name;
+        this.method = method;
+        this.localHeader = localHeader;
+        this.compressedSize = compressedSize;
+        this.size = size;
+    }
+
+    public String getName() {
+        return name.substring(name.lastIndexOf("/") + 1);
+    }
+
+    public String getRelativePath() {
+        return name;
+    }
+
+    public InputStream openInputStream() throws IOException {
+        ByteBuffer buffer = read();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /** the stored entry in place, or the deflated entry inflated into a pooled heap buffer */
+    @Override
+    public ByteBuffer getByteBuffer() throws IOException {
+        return method == ZipEntry.STORED ? data(compressedSize) : inflate(Vfs.pooledBuffer(size, false));
+    }
+
+    /** the stored entry in place, or the deflated entry inflated into a new heap buffer */
+    ByteBuffer read() throws IOException {
+        return method == ZipEntry.STORED ? data(compressedSize) : inflate(ByteBuffer.allocate(size));
+    }
+
+    /** the {@code length} bytes of data following the local header */
+    private ByteBuffer data(int length) throws IOException {
+        ByteBuffer buffer = zip.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(localHeader) != LOCAL_HEADER) throw new ZipException("bad local header of " + name);
+        int start = localHeader + 30 + (buffer.getShort(localHeader + 26) & 0xffff) + (buffer.getShort(localHeader + 28) & 0xffff);
+        ((Buffer) buffer).limit(Math.min(buffer.capacity(), start + length));
+        ((Buffer) buffer).position(start);
+        return buffer.slice();
+    }
+
+    private ByteBuffer inflate(ByteBuffer target) throws IOException {
+        if (method != ZipEntry.DEFLATED) throw new ZipException("unsupported compression method " + method + " of " + name);
+        // an extra byte is provided after the deflated data, as required by the inflater in nowrap mode
+        ByteBuffer data = data(compressedSize + 1);
+        Inflation inflation = Inflation.acquire();
+        try {
+            byte[] input;
+            int offset;
+            if (data.hasArray()) {
+                input = data.array();
+                offset = data.arrayOffset();
+            } else {
+                if (inflation.input.length < data.remaining()) inflation.input = new byte[data.remaining()];
+                input = inflation.input;
+                offset = 0;
+                data.duplicate().get(input, 0, data.remaining());
+            }
+
+            Inflater inflater = inflation.inflater;
+            inflater.setInput(input, offset, data.remaining());
+            byte[] output = target.array();
+            int length = 0;
+            while (length < size) {
+                int inflated = inflater.inflate(output, target.arrayOffset() + length, size - length);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("unexpected end of deflated entry " + name);
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("could not inflate " + name + ": " + e.getMessage());
+        } finally {
+            inflation.release();
+        }
+        return target;
+    }
+
+    /** an inflater and its input array, pooled across threads up to {@link #MAX_POOLED_INFLATERS}, and ended once discarded */
+    private static class Inflation {
+        final Inflater inflater = new Inflater(true);
+        byte[] input = new byte[16 * 1024];
+
+        static Inflation acquire() {
+            Inflation inflation = inflations.poll();
+            if (inflation == null) return new Inflation();
+            pooledInflations.decrementAndGet();
+            return inflation;
+        }
+
+        void release() {
+            inflater.reset();
+            if (pooledInflations.incrementAndGet() <= MAX_POOLED_INFLATERS && input.length <= Vfs.MAX_POOLED_BUFFER) {
+                inflations.offer(this);
+            } else {
+                pooledInflations.decrementAndGet();
+                inflater.end();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return dirPath + "!/" + name;
+    }
+}
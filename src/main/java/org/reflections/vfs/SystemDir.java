@@ -4,8 +4,17 @@ import org.reflections.ReflectionsException;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 /*
  * An implementation of {@link org.reflections.vfs.Vfs.Dir} for directory {@link java.io.File}.
@@ -37,4 +46,76 @@ public class SystemDir implements Vfs.Dir {
             }
         };
     }
+
+    /** files accepted by the given {@code filter}, without walking sub directories not accepted by it */
+    @Override
+    public Iterable<Vfs.File> getFiles(Vfs.PathFilter filter) {
+        if (file == null || !file.exists()) return Collections.emptyList();
+        return () -> new Walk(file.toPath(), "", filter, false).compute().iterator();
+    }
+
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize) {
+        return getFileBatches(batchSize, Vfs.PathFilter.ALL);
+    }
+
+    /** files accepted by the given {@code filter} partitioned into batches.
+     * <p>sub directories are walked in parallel on the fork join pool of the calling task, if any, such as the configured scan executor,
+     * and sequentially otherwise */
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize, Vfs.PathFilter filter) {
+        if (file == null || !file.exists()) return Collections.emptyList();
+        boolean parallel = ForkJoinTask.inForkJoinPool();
+        Walk walk = new Walk(file.toPath(), "", filter, parallel);
+        return Vfs.partition(parallel ? walk.invoke() : walk.compute(), batchSize);
+    }
+
+    @Override
+    public boolean appliesPathFilter() {
+        return true;
+    }
+
+    /**
+     * walks a directory, listing its entries using {@link Files#walkFileTree(Path, Set, int, java.nio.file.FileVisitor)} with the
+     * {@link BasicFileAttributes} read while listing, then walks its accepted sub directories, either in parallel or sequentially.
+     * relative paths are built while walking, rather than relativized per file
+     */
+    private class Walk extends RecursiveTask<List<Vfs.File>> {
+        private final Path dir;
+        private final String relativePath;
+        private final Vfs.PathFilter filter;
+        private final boolean parallel;
+
+        Walk(Path dir, String relativePath, Vfs.PathFilter filter, boolean parallel) {
+            this.dir = dir;
+            this.relativePath = relativePath;
+            this.filter = filter;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected List<Vfs.File> compute() {
+            List<Vfs.File> files = new ArrayList<>();
+            List<Walk> subDirs = new ArrayList<>();
+            try {
+                Files.walkFileTree(dir, Collections.emptySet(), 1, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
+                        String name = relativePath + path.getFileName();
+                        if (attributes.isDirectory()) {
+                            if (filter.acceptsDir(name + "/")) subDirs.add(new Walk(path, name + "/", filter, parallel));
+                        } else if ((attributes.isRegularFile() || attributes.isSymbolicLink() && Files.isRegularFile(path)) && filter.acceptsFile(name)) {
+                            files.add(new SystemFile(SystemDir.this, path.toFile(), name));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new ReflectionsException("could not get files for " + dir, e);
+            }
+            if (parallel) invokeAll(subDirs);
+            for (Walk subDir : subDirs) files.addAll(parallel ? subDir.join() : subDir.compute());
+            return files;
+        }
+    }
 }
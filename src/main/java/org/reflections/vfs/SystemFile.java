@@ -1,17 +1,32 @@
 package org.reflections.vfs;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 /** an implementation of {@link org.reflections.vfs.Vfs.File} for a directory {@link java.io.File} */
 public class SystemFile implements Vfs.File {
+    static final int MAP_THRESHOLD = 64 * 1024;
+
     private final SystemDir root;
     private final java.io.File file;
+    private final String relativePath;
 
     public SystemFile(final SystemDir root, java.io.File file) {
+        this(root, file, null);
+    }
+
+    /** a file with its already known {@code relativePath} within the {@code root} dir */
+    SystemFile(final SystemDir root, java.io.File file, String relativePath) {
         this.root = root;
         this.file = file;
+        this.relativePath = relativePath;
     }
 
     public String getName() {
@@ -19,6 +34,7 @@ public class SystemFile implements Vfs.File {
     }
 
     public String getRelativePath() {
+        if (relativePath != null) return relativePath;
         String filepath = file.getPath().replace("\\", "/");
         if (filepath.startsWith(root.getPath())) {
             return filepath.substring(root.getPath().length() + 1);
@@ -27,6 +43,23 @@ public class SystemFile implements Vfs.File {
         return null; //should not get here
     }
 
+    /** maps files of at least {@link #MAP_THRESHOLD} bytes, and reads smaller files into a pooled direct buffer.
+     * <p>small class files are not mapped, since each mapping costs more than a read, and is only released once garbage collected */
+    @Override
+    public ByteBuffer getByteBuffer() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) return null;
+            if (size >= MAP_THRESHOLD) return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer buffer = Vfs.pooledBuffer((int) size, true);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) throw new EOFException("unexpected end of file " + file);
+            }
+            ((Buffer) buffer).flip();
+            return buffer;
+        }
+    }
+
     public InputStream openInputStream() {
         try {
             return new FileInputStream(file);
@@ -4,20 +4,32 @@ import org.reflections.Reflections;
 import org.reflections.ReflectionsException;
 import org.reflections.util.ClasspathHelper;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
 import java.net.JarURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLDecoder;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.jar.JarFile;
+import java.util.zip.ZipFile;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -54,12 +66,52 @@ import java.util.stream.StreamSupport;
  */
 public abstract class Vfs {
     private static List<UrlType> defaultUrlTypes = new ArrayList<>(Arrays.asList(DefaultUrlTypes.values()));
+    static final int MAX_POOLED_BUFFER = 1024 * 1024;
+    private static final ThreadLocal<ByteBuffer> heapBuffers = new ThreadLocal<>(), directBuffers = new ThreadLocal<>();
+    @Nullable private static final Method isVirtual = isVirtualMethod();
 
     /** an abstract vfs dir */
     public interface Dir {
         String getPath();
         Iterable<File> getFiles();
         default void close() {}
+
+        /** files of this dir partitioned into batches of up to {@code batchSize} files, which may be read concurrently by different threads.
+         * <p>defaults to a single batch of {@link #getFiles()}, for dirs that can only be read sequentially such as {@link JarInputDir} */
+        default List<Iterable<File>> getFileBatches(int batchSize) {
+            return Collections.singletonList(getFiles());
+        }
+
+        /** files of this dir, skipping files and sub directories not accepted by the given {@code filter} while iterating.
+         * <p>the filter is a hint, files not accepted may still be returned. defaults to {@link #getFiles()} */
+        default Iterable<File> getFiles(PathFilter filter) {
+            return getFiles();
+        }
+
+        /** {@link #getFileBatches(int) file batches} of this dir, skipping files and sub directories not accepted by the given {@code filter}.
+         * <p>the filter is a hint, files not accepted may still be returned. defaults to {@link #getFileBatches(int)} */
+        default List<Iterable<File>> getFileBatches(int batchSize, PathFilter filter) {
+            return getFileBatches(batchSize);
+        }
+
+        /** true if {@link #getFiles(PathFilter)} and {@link #getFileBatches(int, PathFilter)} only return files accepted by the filter,
+         * such that the accepted files need not be filtered again. defaults to false */
+        default boolean appliesPathFilter() {
+            return false;
+        }
+    }
+
+    /** a filter of slash separated paths relative to a {@link Dir}, used for skipping files and whole sub directories while iterating */
+    public interface PathFilter {
+        PathFilter ALL = path -> true;
+
+        /** true if the file with the given relative {@code path} should be iterated */
+        boolean acceptsFile(String path);
+
+        /** false if no file within the given relative {@code dirPath}, ending with a slash, should be iterated. defaults to true */
+        default boolean acceptsDir(String dirPath) {
+            return true;
+        }
     }
 
     /** an abstract vfs file */
@@ -67,6 +119,13 @@ public abstract class Vfs {
         String getName();
         String getRelativePath();
         InputStream openInputStream() throws IOException;
+
+        /** a buffer over the contents of this file positioned at its start, or null if not supported, in which case {@link #openInputStream()} is used.
+         * <p>the buffer may be {@link Vfs#pooledBuffer(int, boolean) pooled}, and is then overwritten by the next call of any file on the same thread */
+        @Nullable
+        default ByteBuffer getByteBuffer() throws IOException {
+            return null;
+        }
     }
 
     /** a matcher and factory for a url */
@@ -187,6 +246,87 @@ public abstract class Vfs {
         return null;
     }
 
+    /**
+     * a fingerprint of the contents of the given {@code url}, which changes whenever its files change, or null if not supported.
+     * <p>jar files are fingerprinted by their content only, the size and the name, crc and size of each entry in the central directory,
+     * such that a copied jar keeps its fingerprint. directories are fingerprinted by the relative path, size and last modified time of each file
+     */
+    @Nullable
+    public static String fingerprint(URL url) {
+        if (!"file".equals(url.getProtocol()) && !"jar".equals(url.getProtocol()) || hasInnerJarFileInPath(url)) return null;
+        java.io.File file = getFile(url);
+        if (file == null) return null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            Consumer<String> update = s -> digest.update(s.getBytes(StandardCharsets.UTF_8));
+            if (file.isDirectory()) {
+                Path root = file.toPath();
+                try (Stream<Path> paths = Files.walk(root)) {
+                    for (Path path : (Iterable<Path>) paths.sorted()::iterator) {
+                        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                        if (attributes.isRegularFile()) {
+                            update.accept(root.relativize(path) + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + "\n");
+                        }
+                    }
+                }
+            } else if (file.isFile()) {
+                update.accept(file.length() + "\n");
+                try (ZipFile zipFile = new ZipFile(file)) {
+                    zipFile.stream().forEach(entry -> update.accept(entry.getName() + ":" + entry.getCrc() + ":" + entry.getSize() + "\n"));
+                }
+            } else return null;
+            StringBuilder fingerprint = new StringBuilder();
+            for (byte b : digest.digest()) fingerprint.append(String.format("%02x", b));
+            return fingerprint.toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /** a buffer of {@code size} bytes, positioned at 0 with limit {@code size}, reused per thread and per heap or direct kind up to {@link #MAX_POOLED_BUFFER} bytes.
+     * <p>buffers are not pooled on virtual threads, which are created per task, such that a per thread buffer would never be reused */
+    static ByteBuffer pooledBuffer(int size, boolean direct) {
+        if (size > MAX_POOLED_BUFFER || isVirtualThread()) return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        ThreadLocal<ByteBuffer> pool = direct ? directBuffers : heapBuffers;
+        ByteBuffer buffer = pool.get();
+        if (buffer == null || buffer.capacity() < size) {
+            int capacity = Math.max(size, buffer != null ? Math.min(buffer.capacity() * 2, MAX_POOLED_BUFFER) : 16 * 1024);
+            buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            pool.set(buffer);
+        }
+        // called through Buffer, since the covariant ByteBuffer overrides of jdk 9+ do not exist on java 8
+        ((Buffer) buffer).clear();
+        ((Buffer) buffer).limit(size);
+        return buffer;
+    }
+
+    /** true if the current thread is a virtual thread, java 21+ */
+    static boolean isVirtualThread() {
+        try {
+            return isVirtual != null && (Boolean) isVirtual.invoke(Thread.currentThread());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static Method isVirtualMethod() {
+        try {
+            return Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /** partitions the given {@code files} into consecutive sublists of up to {@code batchSize} files */
+    static List<Iterable<File>> partition(List<File> files, int batchSize) {
+        List<Iterable<File>> batches = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += batchSize) {
+            batches.add(files.subList(i, Math.min(files.size(), i + batchSize)));
+        }
+        return batches;
+    }
+
     private static boolean hasJarFileInPath(URL url) {
         return url.toExternalForm().matches(".*\\.jar(!.*|$)");
     }
@@ -200,9 +340,11 @@ public abstract class Vfs {
      * <p>jarFile - creates a {@link org.reflections.vfs.ZipDir} over jar file
      * <p>jarUrl - creates a {@link org.reflections.vfs.ZipDir} over a jar url, using Java's {@link JarURLConnection}
      * <p>directory - creates a {@link org.reflections.vfs.SystemDir} over a file system directory
+     * <p>jrt - creates a {@link JrtDir} over a module or the whole java runtime image, such as {@code jrt:/java.base} (java 9+)
      * <p>jboss vfs - for protocols vfs, using jboss vfs (should be provided in classpath)
      * <p>jboss vfsfile - creates a {@link UrlTypeVFS} for protocols vfszip and vfsfile.
      * <p>bundle - for bundle protocol, using eclipse FileLocator (should be provided in classpath)
+     * <p>nestedJar - creates a random access {@link NestedJarDir} over a jar nested in a jar file, such as {@code jar:file:app.jar!/BOOT-INF/lib/x.jar!/}
      * <p>jarInputStream - creates a {@link JarInputDir} over jar files (contains ".jar!/" in it's name), using Java's JarInputStream
      * */
     public enum DefaultUrlTypes implements UrlType {
@@ -250,6 +392,16 @@ public abstract class Vfs {
             }
         },
 
+        jrt {
+            public boolean matches(URL url) {
+                return "jrt".equals(url.getProtocol());
+            }
+
+            public Dir createDir(URL url) throws Exception {
+                return new JrtDir(url);
+            }
+        },
+
         jboss_vfs {
             public boolean matches(URL url) {
                 return url.getProtocol().equals("vfs");
@@ -281,6 +433,16 @@ public abstract class Vfs {
             }
         },
 
+        nestedJar {
+            public boolean matches(URL url) {
+                return "jar".equals(url.getProtocol()) && url.toExternalForm().matches("jar:file:.+?\\.jar!/[^!]+\\.jar!/?");
+            }
+
+            public Dir createDir(URL url) throws Exception {
+                return new NestedJarDir(url);
+            }
+        },
+
         jarInputStream {
             public boolean matches(URL url) throws Exception {
                 return url.toExternalForm().contains(".jar");
@@ -3,6 +3,8 @@ package org.reflections.vfs;
 import org.reflections.Reflections;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.jar.JarFile;
 
 /** an implementation of {@link org.reflections.vfs.Vfs.Dir} for {@link java.util.zip.ZipFile} */
@@ -18,12 +20,35 @@ public class ZipDir implements Vfs.Dir {
     }
 
     public Iterable<Vfs.File> getFiles() {
+        return getFiles(Vfs.PathFilter.ALL);
+    }
+
+    /** files of entries accepted by the given {@code filter}, skipping other entries while iterating the central directory */
+    @Override
+    public Iterable<Vfs.File> getFiles(Vfs.PathFilter filter) {
         return () -> jarFile.stream()
-                .filter(entry -> !entry.isDirectory())
+                .filter(entry -> !entry.isDirectory() && filter.acceptsFile(entry.getName()))
                 .map(entry -> (Vfs.File) new ZipFile(ZipDir.this, entry))
                 .iterator();
     }
 
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize) {
+        return getFileBatches(batchSize, Vfs.PathFilter.ALL);
+    }
+
+    @Override
+    public List<Iterable<Vfs.File>> getFileBatches(int batchSize, Vfs.PathFilter filter) {
+        List<Vfs.File> files = new ArrayList<>();
+        getFiles(filter).forEach(files::add);
+        return Vfs.partition(files, batchSize);
+    }
+
+    @Override
+    public boolean appliesPathFilter() {
+        return true;
+    }
+
     public void close() {
         try { jarFile.close(); } catch (IOException e) {
             if (Reflections.log != null) {
@@ -1,7 +1,9 @@
 package org.reflections.vfs;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.zip.ZipEntry;
 
 /** an implementation of {@link org.reflections.vfs.Vfs.File} for {@link java.util.zip.ZipEntry} */
@@ -27,6 +29,24 @@ public class ZipFile implements Vfs.File {
         return root.jarFile.getInputStream(entry);
     }
 
+    /** inflates the entry into a pooled heap buffer, or null if its size is unknown */
+    @Override
+    public ByteBuffer getByteBuffer() throws IOException {
+        long size = entry.getSize();
+        if (size < 0 || size > Integer.MAX_VALUE) return null;
+        ByteBuffer buffer = Vfs.pooledBuffer((int) size, false);
+        try (InputStream inputStream = openInputStream()) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset(), length = 0;
+            while (length < size) {
+                int read = inputStream.read(array, offset + length, (int) size - length);
+                if (read < 0) throw new EOFException("unexpected end of entry " + entry.getName());
+                length += read;
+            }
+        }
+        return buffer;
+    }
+
     @Override
     public String toString() {
         return root.getPath() + "!" + java.io.File.separatorChar + entry.toString();
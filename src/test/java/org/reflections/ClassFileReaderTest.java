@@ -0,0 +1,175 @@
+package org.reflections;
+
+import javassist.bytecode.ClassFile;
+import org.junit.jupiter.api.Test;
+import org.reflections.scanners.EntrySink;
+import org.reflections.scanners.MethodParameterNamesScanner;
+import org.reflections.scanners.Scanner;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClassFileReader;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.reflections.TestModel.*;
+import static org.reflections.util.JavassistHelper.*;
+
+public class ClassFileReaderTest {
+
+	@Test
+	public void header() throws IOException {
+		ClassFileReader c3 = read(C3.class);
+		assertEquals(C3.class.getName(), c3.getName());
+		assertEquals(C1.class.getName(), c3.getSuperclass());
+		assertEquals(Collections.emptyList(), c3.getInterfaces());
+		assertEquals(Collections.singletonList(AC2.class.getName()), c3.getAnnotations());
+
+		ClassFileReader i2 = read(I2.class);
+		assertEquals(Object.class.getName(), i2.getSuperclass());
+		assertEquals(Collections.singletonList(I1.class.getName()), i2.getInterfaces());
+
+		assertNull(read(Object.class).getSuperclass());
+	}
+
+	@Test
+	public void members() throws IOException {
+		ClassFileReader c4 = read(C4.class);
+		assertEquals(Arrays.asList(C4.class.getName() + ".f1", C4.class.getName() + ".f2", C4.class.getName() + ".f3"),
+			c4.getFields().stream().map(ClassFileReader.Member::getQualifiedName).collect(Collectors.toList()));
+		assertEquals(Collections.singletonList(AF1.class.getName()), c4.getFields().get(0).getAnnotations());
+
+		ClassFileReader.Member m1 = c4.getMethods().stream()
+			.filter(method -> method.getQualifiedName().endsWith(".m1(int[][], java.lang.String[][])")).findFirst().get();
+		assertEquals("void", m1.getReturnType());
+		assertEquals(Arrays.asList("int[][]", "java.lang.String[][]"), m1.getParameters());
+		assertEquals(Collections.singletonList(AM1.class.getName()), m1.getAnnotations());
+
+		ClassFileReader.Member m4 = c4.getMethods().stream()
+			.filter(method -> method.getName().equals("m4")).findFirst().get();
+		assertEquals(Collections.singletonList(Arrays.asList(AM1.class.getName(), AM2.class.getName())), m4.getParametersAnnotations());
+	}
+
+	@Test
+	public void javassistSymmetry() throws IOException {
+		for (Class<?> type : Arrays.asList(C1.class, C4.class, I3.class, AC3.class, C7.class, String.class, Reflections.class)) {
+			ClassFileReader reader = read(type);
+			ClassFile classFile = javassist(type);
+
+			assertEquals(classFile.getName(), reader.getName());
+			assertEquals(classFile.getSuperclass(), reader.getSuperclass());
+			assertEquals(Arrays.asList(classFile.getInterfaces()), reader.getInterfaces());
+			assertEquals(getAnnotations(classFile::getAttribute), reader.getAnnotations());
+			assertEquals(getMethods(classFile).map(method -> methodName(classFile, method)).collect(Collectors.toList()),
+				names(reader.getMethods()));
+			assertEquals(getConstructors(classFile).map(method -> methodName(classFile, method)).collect(Collectors.toList()),
+				names(reader.getConstructors()));
+			assertEquals(getMethods(classFile).map(method -> getParametersAnnotations(method)).collect(Collectors.toList()),
+				reader.getMethods().stream().map(ClassFileReader.Member::getParametersAnnotations).collect(Collectors.toList()));
+			assertEquals(classFile.getFields().stream().map(field -> fieldName(classFile, field)).collect(Collectors.toList()),
+				names(reader.getFields()));
+		}
+	}
+
+	@Test
+	public void utf8Prefix() throws IOException {
+		ClassFileReader c3 = read(C3.class);
+		assertTrue(c3.hasUtf8Prefix("Lorg/reflections/TestModel$AC2;".getBytes(StandardCharsets.UTF_8)));
+		assertTrue(c3.hasUtf8Prefix("Lnone/".getBytes(StandardCharsets.UTF_8), "org/reflections/".getBytes(StandardCharsets.UTF_8)));
+		assertFalse(c3.hasUtf8Prefix("Lorg/reflections/TestModel$AC3;".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void constantPoolPrecheck() {
+		Reflections all = new Reflections(new ConfigurationBuilder()
+			.forPackage("org.reflections")
+			.setScanners(Scanners.TypesAnnotated, Scanners.MethodsAnnotated));
+		Reflections filtered = new Reflections(new ConfigurationBuilder()
+			.forPackage("org.reflections")
+			.setScanners(Scanners.TypesAnnotated, new TestModelMethodsAnnotated()));
+		assertEquals(all.get(Scanners.MethodsAnnotated.with(AM1.class)), filtered.get(Scanners.MethodsAnnotated.with(AM1.class)));
+		assertTrue(filtered.getStore().get(Scanners.MethodsAnnotated.index()).keySet().stream()
+			.allMatch(key -> key.startsWith(TestModel.class.getName())));
+	}
+
+	/** {@link Scanners#MethodsAnnotated} of test model annotations only, pre-checked by their constant pool prefix */
+	private static class TestModelMethodsAnnotated implements Scanner {
+		@Override
+		public String index() {
+			return Scanners.MethodsAnnotated.index();
+		}
+
+		@Override
+		public List<String> getConstantPoolPrefixes() {
+			return Collections.singletonList("L" + TestModel.class.getName().replace('.', '/') + "$");
+		}
+
+		@Override
+		public List<Map.Entry<String, String>> scan(ClassFile classFile) {
+			return scan(ClassFileReader.of(classFile));
+		}
+
+		@Override
+		public List<Map.Entry<String, String>> scan(ClassFileReader classFile) {
+			List<Map.Entry<String, String>> entries = new ArrayList<>();
+			scan(classFile, (key, value) -> entries.add(entry(key, value)));
+			return entries;
+		}
+
+		@Override
+		public void scan(ClassFileReader classFile, EntrySink sink) {
+			Scanners.MethodsAnnotated.scan(classFile, (key, value) -> {
+				if (key.startsWith(TestModel.class.getName() + "$")) sink.accept(key, value);
+			});
+		}
+	}
+
+	@Test
+	public void entrySink() throws IOException {
+		ClassFileReader c4 = read(C4.class);
+		for (Scanner scanner : Arrays.asList(Scanners.MethodsAnnotated, Scanners.FieldsAnnotated, Scanners.ConstructorsAnnotated,
+				Scanners.MethodsParameter, Scanners.MethodsSignature, Scanners.MethodsReturn, new MethodParameterNamesScanner())) {
+			List<Map.Entry<String, String>> pushed = new ArrayList<>();
+			scanner.scan(c4, (key, value) -> pushed.add(new AbstractMap.SimpleEntry<>(key, value)));
+			assertEquals(scanner.scan(c4), pushed);
+			assertFalse(pushed.isEmpty());
+		}
+	}
+
+	@Test
+	public void notClassFile() {
+		assertThrows(ReflectionsException.class, () -> new ClassFileReader(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10}));
+		assertThrows(ReflectionsException.class, () -> new ClassFileReader(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 52, 0, 9}));
+	}
+
+	private static List<String> names(List<ClassFileReader.Member> members) {
+		return members.stream().map(ClassFileReader.Member::getQualifiedName).collect(Collectors.toList());
+	}
+
+	private static ClassFileReader read(Class<?> type) throws IOException {
+		try (InputStream inputStream = resource(type)) {
+			return ClassFileReader.read(inputStream);
+		}
+	}
+
+	private static ClassFile javassist(Class<?> type) throws IOException {
+		try (DataInputStream dis = new DataInputStream(new BufferedInputStream(resource(type)))) {
+			return new ClassFile(dis);
+		}
+	}
+
+	private static InputStream resource(Class<?> type) {
+		return ClassLoader.getSystemResourceAsStream(type.getName().replace('.', '/') + ".class");
+	}
+}
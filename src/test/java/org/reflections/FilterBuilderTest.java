@@ -3,7 +3,16 @@ package org.reflections;
 import org.junit.jupiter.api.Test;
 import org.reflections.util.FilterBuilder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FilterBuilderTest {
@@ -36,6 +45,83 @@ public class FilterBuilderTest {
         doAssert(filter);
     }
 
+    @Test
+    public void includePrefixes() {
+        assertEquals(Arrays.asList("org.reflections.", "org.foo."), new FilterBuilder()
+            .includePackage("org.reflections")
+            .excludePackage("org.reflections.exclude")
+            .includePackage("org.foo").getIncludePrefixes());
+        assertEquals(Collections.singletonList("org.reflections.TestModel$"),
+            new FilterBuilder().includePattern("org\\.reflections\\.TestModel\\$.*").getIncludePrefixes());
+
+        assertNull(new FilterBuilder().getIncludePrefixes());
+        assertNull(new FilterBuilder().excludePackage("org.reflections").getIncludePrefixes());
+        assertNull(new FilterBuilder().includePattern("org\\..*\\.foo").getIncludePrefixes());
+        assertNull(new FilterBuilder().includePackage("org.reflections").add(s -> true).getIncludePrefixes());
+    }
+
+    @Test
+    public void compiledEqualsChain() {
+        List<String> packages = Arrays.asList("org", "org.reflections", "org.reflections.exclude", "org.foo", "META-INF");
+        List<String> patterns = Arrays.asList("org\\..*\\.Reflections", ".*\\.class", "org\\.reflections\\.Reflections", "META-INF/.*", "(?i)ORG\\.FOO\\..*");
+        List<String> values = Arrays.asList("", "org", "org.", "org.reflections.", "org.reflections.Reflections", "org/reflections/Reflections",
+            "org/reflections/exclude/A.class", "org.reflections.exclude.A.class", "org/foo/bar.class", "META-INF/services/x", "com/bar/Reflections.class");
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            FilterBuilder filter = new FilterBuilder();
+            List<Pattern> rules = new ArrayList<>();
+            List<Boolean> includes = new ArrayList<>();
+            for (int rule = random.nextInt(6); rule > 0; rule--) {
+                boolean include = random.nextBoolean();
+                String regex;
+                if (random.nextBoolean()) {
+                    String name = packages.get(random.nextInt(packages.size()));
+                    if (include) filter.includePackage(name); else filter.excludePackage(name);
+                    regex = name.replace(".", "\\.") + "\\..*";
+                } else {
+                    regex = patterns.get(random.nextInt(patterns.size()));
+                    if (include) filter.includePattern(regex); else filter.excludePattern(regex);
+                }
+                rules.add(Pattern.compile(regex));
+                includes.add(include);
+            }
+            for (String value : values) {
+                boolean expected = chain(rules, includes, value);
+                assertEquals(expected, filter.test(value), filter + " " + value);
+                assertEquals(expected || chain(rules, includes, value.replace('/', '.')), filter.testPath(value), filter + " " + value);
+                for (int slash = value.indexOf('/'); slash >= 0; slash = value.indexOf('/', slash + 1)) {
+                    if (!filter.testDir(value.substring(0, slash + 1))) assertFalse(filter.testPath(value), filter + " " + value);
+                }
+            }
+        }
+    }
+
+    /** reference evaluation of a chain of include and exclude rules */
+    private static boolean chain(List<Pattern> rules, List<Boolean> includes, String value) {
+        boolean accept = rules.isEmpty() || !includes.get(0);
+        for (int i = 0; i < rules.size(); i++) {
+            boolean include = includes.get(i);
+            if (accept == include) continue;
+            boolean matches = rules.get(i).matcher(value).matches();
+            accept = include == matches;
+            if (!accept && !include) break;
+        }
+        return accept;
+    }
+
+    @Test
+    public void testDir() {
+        FilterBuilder filter = new FilterBuilder().includePackage("org.reflections").excludePackage("org.reflections.exclude");
+        assertTrue(filter.testDir(""));
+        assertTrue(filter.testDir("org/"));
+        assertTrue(filter.testDir("org/reflections/foo/"));
+        assertFalse(filter.testDir("com/"));
+        assertFalse(filter.testDir("org/reflections/exclude/"));
+        assertFalse(filter.testDir("org/reflections/exclude/foo/"));
+        assertTrue(new FilterBuilder().includePattern(".*\\.class").testDir("com/"));
+        assertTrue(new FilterBuilder().includePackage("org").add(s -> true).testDir("com/"));
+    }
+
     private void doAssert(FilterBuilder filter) {
         assertFalse(filter.test(""));
         assertFalse(filter.test("org"));
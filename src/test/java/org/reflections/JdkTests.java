@@ -8,10 +8,8 @@ import org.reflections.scanners.Scanners;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.UtilQueryBuilder;
-import org.reflections.vfs.Vfs;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -44,9 +42,6 @@ public class JdkTests {
 
 	@BeforeAll
 	static void init() {
-		if (!Vfs.getDefaultUrlTypes().get(0).getClass().equals(JrtUrlType.class)) {
-			Vfs.addDefaultURLTypes(new JrtUrlType());
-		}
 		URL urls = ClasspathHelper.forClass(Object.class);
 		measure("before");
 
@@ -60,9 +55,6 @@ public class JdkTests {
 
 	@AfterAll
 	static void cleanup() {
-		if (Vfs.getDefaultUrlTypes().get(0).getClass().equals(JrtUrlType.class)) {
-			Vfs.getDefaultUrlTypes().remove(0);
-		}
 		reflections.getStore().clear();
 		measure("cleanup");
 	}
@@ -142,7 +134,7 @@ public class JdkTests {
 				Set<URL> urls = get(ReflectionUtils.Resources.get(resource));
 //				if (urls == null || urls.isEmpty()) diff.add(resource);
 				for (URL url : urls) {
-					try { if (!Files.exists(JrtUrlType.getJrtRealPath(url))) diff.add(resource); }
+					try { if (!Files.exists(getJrtRealPath(url))) diff.add(resource); }
 					catch (Exception e) { diff.add(resource); }
 				}
 			}));
@@ -200,59 +192,12 @@ public class JdkTests {
 		return (mem2 / 1024 / 1024) + "mb";
 	}
 
-	public static class JrtUrlType implements Vfs.UrlType {
-		@Override
-		public boolean matches(URL url) throws Exception {
-			return url.getProtocol().equals("jrt");
-		}
-
-		@Override
-		public Vfs.Dir createDir(URL url) throws Exception {
-			final Path realPath = getJrtRealPath(url);
-			return new Vfs.Dir() {
-				@Override
-				public String getPath() {
-					return url.getPath();
-				}
-
-				@Override
-				public Iterable<Vfs.File> getFiles() {
-					return () -> {
-						try {
-							return Files.walk(realPath)
-								.filter(Files::isRegularFile)
-								.map(p -> (Vfs.File) new Vfs.File() {
-									@Override
-									public String getName() {
-										return p.toString();
-									}
-
-									@Override
-									public String getRelativePath() {
-										return p.startsWith(realPath) ? p.toString().substring(realPath.toString().length()) : p.toString();
-									}
-
-									@Override
-									public InputStream openInputStream() throws IOException {
-										return Files.newInputStream(p);
-									}
-								})
-								.iterator();
-						} catch (Exception e) {
-							throw new ReflectionsException(e);
-						}
-					};
-				}
-			};
-		}
-
-		/**
-		 * jdk 11 workaround for {@code Paths.get().toRealPath()}
-		 */
-		public static Path getJrtRealPath(URL url) throws IOException {
-			// jdk 11 workaround
-			return FileSystems.getFileSystem(URI.create("jrt:/")).getPath("modules", url.getPath())
-				.toRealPath();
-		}
+	/**
+	 * jdk 11 workaround for {@code Paths.get().toRealPath()}
+	 */
+	private static Path getJrtRealPath(URL url) throws IOException {
+		// jdk 11 workaround
+		return FileSystems.getFileSystem(URI.create("jrt:/")).getPath("modules", url.getPath())
+			.toRealPath();
 	}
 }
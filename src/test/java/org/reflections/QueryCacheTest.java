@@ -0,0 +1,51 @@
+package org.reflections;
+
+import org.junit.jupiter.api.Test;
+import org.reflections.scanners.Scanners;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.reflections.ReflectionsTest.testModelConfiguration;
+import static org.reflections.scanners.Scanners.SubTypes;
+
+public class QueryCacheTest {
+
+    @Test
+    public void queryCache() {
+        Reflections reflections = new Reflections(testModelConfiguration(Scanners.SubTypes, Scanners.TypesAnnotated, Scanners.MethodsAnnotated)
+            .setQueryCacheSize(2));
+        QueryCache cache = reflections.getQueryCache();
+        assertNotNull(cache);
+        assertNull(new Reflections(new Store()).getQueryCache());
+
+        Set<Class<? extends TestModel.C1>> subTypes = reflections.getSubTypesOf(TestModel.C1.class);
+        assertSame(subTypes, reflections.getSubTypesOf(TestModel.C1.class));
+        assertThrows(UnsupportedOperationException.class, () -> subTypes.add(TestModel.C1.class));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // keyed by method and arguments
+        assertSame(reflections.getTypesAnnotatedWith(TestModel.AC1.class), reflections.getTypesAnnotatedWith(TestModel.AC1.class));
+        reflections.getTypesAnnotatedWith(TestModel.AC1.class, true);
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(2, cache.size());
+
+        // least recently used results are evicted
+        reflections.getMethodsAnnotatedWith(TestModel.AM1.class);
+        assertEquals(2, cache.size());
+        reflections.getSubTypesOf(TestModel.C1.class);
+        assertEquals(5, cache.getMisses());
+
+        // merge discards cached results
+        Set<Class<? extends TestModel.C1>> beforeMerge = reflections.getSubTypesOf(TestModel.C1.class);
+        reflections.merge(new Reflections(new Store(Collections.singletonMap(SubTypes.index(),
+            Collections.singletonMap(TestModel.C1.class.getName(), Collections.singleton(TestModel.C5.class.getName()))))));
+        assertEquals(0, cache.size());
+        Set<Class<? extends TestModel.C1>> afterMerge = reflections.getSubTypesOf(TestModel.C1.class);
+        assertNotSame(beforeMerge, afterMerge);
+        assertEquals(beforeMerge, afterMerge);
+    }
+}
@@ -2,12 +2,34 @@ package org.reflections;
 
 import org.junit.jupiter.api.Test;
 import org.reflections.scanners.Scanners;
+import org.reflections.serializers.BinarySerializer;
 import org.reflections.serializers.JsonSerializer;
+import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.reflections.ReflectionsTest.getUserDir;
+import static org.reflections.ReflectionsTest.testModelConfiguration;
 
 public class ReflectionsCollectTest {
 
@@ -34,5 +56,117 @@ public class ReflectionsCollectTest {
 		assertEquals(
 			Reflections.collect("/META-INF/reflections/testModel-reflections.json", a -> true).getStore(),
 			Reflections.collect("/META-INF/reflections/saved-testModel-reflections.json", a -> true).getStore());
+
+		// binary
+		File saved = reflections.save(targetDir + "/META-INF/reflections/saved-testModel-reflections.bin", new BinarySerializer());
+		assertEquals(
+			reflections.getStore(),
+			Reflections.collect("META-INF/reflections", new FilterBuilder().includePattern("saved-testModel-reflections\\.bin"), new BinarySerializer()).getStore());
+		Reflections mapped = new BinarySerializer().read(saved.toPath());
+		assertEquals(reflections.getStore(), mapped.getStore());
+		assertEquals(
+			reflections.get(Scanners.SubTypes.of(TestModel.I1.class)),
+			mapped.get(Scanners.SubTypes.of(TestModel.I1.class)));
+	}
+
+	@Test
+	public void testCompactStore() {
+		Reflections reflections = new Reflections(new ConfigurationBuilder()
+			.addUrls(ClasspathHelper.forClass(ReflectionsCollectTest.class), ClasspathHelper.forClass(Test.class))
+			.setScanners(Scanners.values()));
+		Store store = reflections.getStore();
+		CompactStore compactStore = new CompactStore(store);
+		assertEquals(store, compactStore);
+		assertEquals(compactStore, store);
+		assertEquals(store.hashCode(), compactStore.hashCode());
+
+		Reflections compact = new Reflections(compactStore);
+		assertEquals(reflections.get(Scanners.SubTypes.of(TestModel.I1.class)), compact.get(Scanners.SubTypes.of(TestModel.I1.class)));
+		assertEquals(reflections.get(Scanners.TypesAnnotated.with(TestModel.AI1.class)), compact.get(Scanners.TypesAnnotated.with(TestModel.AI1.class)));
+		assertEquals(reflections.get(Scanners.Resources.with(".*\\.properties")), compact.get(Scanners.Resources.with(".*\\.properties")));
+		assertTrue(compact.get(Scanners.SubTypes.of("no.such.Type")).isEmpty());
+
+		assertThrows(UnsupportedOperationException.class, () -> compactStore.put("index", new HashMap<>()));
+		assertThrows(UnsupportedOperationException.class, () -> compactStore.keySet().clear());
+		assertThrows(UnsupportedOperationException.class, () -> compactStore.get(Scanners.SubTypes.index()).put("key", new HashSet<>()));
+		assertThrows(UnsupportedOperationException.class, () -> compactStore.get(Scanners.SubTypes.index()).values().iterator().next().add("value"));
+	}
+
+	@Test
+	public void testReverseIndex() {
+		Reflections reflections = new Reflections(testModelConfiguration(Scanners.SubTypes, Scanners.TypesAnnotated));
+		String c1 = TestModel.C1.class.getName(), c3 = TestModel.C3.class.getName();
+		assertEquals(Collections.singleton(c1), reflections.get(Scanners.SubTypes.reverse(TestModel.C3.class)));
+		assertEquals(new HashSet<>(Arrays.asList(c1, TestModel.I1.class.getName(), TestModel.I2.class.getName())),
+			// java.lang.Object is only indexed if SubTypes results are not filtered, which other tests may change
+			reflections.get(Scanners.SubTypes.reverseAll(c3).filter(type -> !type.equals(Object.class.getName()))));
+		assertEquals(new HashSet<>(Arrays.asList(TestModel.AC1.class.getName(), TestModel.AC1n.class.getName())),
+			reflections.get(Scanners.TypesAnnotated.reverse(TestModel.C1.class)));
+		assertTrue(reflections.get(Scanners.SubTypes.reverse("no.such.Type")).isEmpty());
+
+		// reverse index is reset when the store changes
+		Store store = reflections.getStore();
+		Map<String, Set<String>> reverse = store.getReverse(Scanners.SubTypes.index());
+		assertSame(reverse, store.getReverse(Scanners.SubTypes.index()));
+		reflections.merge(new Reflections(new Store(Collections.singletonMap(Scanners.SubTypes.index(),
+			Collections.singletonMap("x.Super", Collections.singleton(c3))))));
+		assertNotSame(reverse, store.getReverse(Scanners.SubTypes.index()));
+		assertEquals(new HashSet<>(Arrays.asList(c1, "x.Super")), reflections.get(Scanners.SubTypes.reverse(c3)));
+
+		reverse = store.getReverse(Scanners.SubTypes.index());
+		store.compute(Scanners.SubTypes.index(), (index, map) -> Collections.singletonMap("y.Super", Collections.singleton(c3)));
+		assertNotSame(reverse, store.getReverse(Scanners.SubTypes.index()));
+		assertEquals(Collections.singleton("y.Super"), store.getReverse(Scanners.SubTypes.index()).get(c3));
+		reverse = store.getReverse(Scanners.SubTypes.index());
+		store.remove(Scanners.SubTypes.index(), store.get(Scanners.SubTypes.index()));
+		assertNotSame(reverse, store.getReverse(Scanners.SubTypes.index()));
+		assertTrue(store.getReverse(Scanners.SubTypes.index()).isEmpty());
+	}
+
+	@Test
+	public void testConcurrentStore() throws Exception {
+		Reflections reflections = new Reflections(testModelConfiguration(Scanners.SubTypes).setConcurrentStore(true));
+		Store initial = reflections.getStore();
+		Map<String, Set<String>> initialSubTypes = new HashMap<>(initial.get(Scanners.SubTypes.index()));
+		int merges = 200;
+
+		// each merge adds x.Base -> x.Sub<i> and x.Sub<i> -> x.Leaf<i>, a query must never see one without the other
+		AtomicBoolean merging = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<Integer>> readers = new ArrayList<>();
+			for (int r = 0; r < 2; r++) {
+				readers.add(executor.submit(() -> {
+					int previous = 0;
+					boolean done;
+					do {
+						done = !merging.get();
+						Set<String> leafs = reflections.get(Scanners.SubTypes.of("x.Base").filter(name -> name.startsWith("x.Leaf")));
+						Set<String> subs = reflections.get(Scanners.SubTypes.of("x.Base").filter(name -> name.startsWith("x.Sub")));
+						assertTrue(leafs.size() >= previous && subs.size() >= leafs.size());
+						previous = leafs.size();
+					} while (!done);
+					return previous;
+				}));
+			}
+			for (int i = 0; i < merges; i++) {
+				Map<String, Set<String>> subTypes = new HashMap<>();
+				subTypes.put("x.Base", Collections.singleton("x.Sub" + i));
+				subTypes.put("x.Sub" + i, Collections.singleton("x.Leaf" + i));
+				reflections.merge(new Reflections(new Store(Collections.singletonMap(Scanners.SubTypes.index(), subTypes))));
+			}
+			merging.set(false);
+			for (Future<Integer> reader : readers) assertEquals(merges, reader.get());
+		} finally {
+			executor.shutdown();
+		}
+
+		// previous versions are not modified, unchanged value sets are shared with the new version
+		assertNotSame(initial, reflections.getStore());
+		assertEquals(initialSubTypes, initial.get(Scanners.SubTypes.index()));
+		assertFalse(initial.get(Scanners.SubTypes.index()).containsKey("x.Base"));
+		String c3 = TestModel.C3.class.getName();
+		assertSame(initial.get(Scanners.SubTypes.index()).get(c3), reflections.getStore().get(Scanners.SubTypes.index()).get(c3));
+		assertEquals(merges, reflections.getStore().get(Scanners.SubTypes.index()).get("x.Base").size());
 	}
 }
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.reflections.scanners.Scanners;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
+import org.reflections.util.QueryFunction;
 import org.reflections.util.NameHelper;
 
 import java.lang.annotation.Annotation;
@@ -13,11 +14,17 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.reflections.ReflectionUtils.withAnnotation;
 import static org.reflections.ReflectionUtils.withAnyParameterAnnotation;
 import static org.reflections.TestModel.*;
@@ -325,6 +332,27 @@ public class ReflectionsQueryTest implements NameHelper {
 				"org.reflections.TestModel$C5", "org.reflections.TestModel$C6", "org.reflections.TestModel$C7"));
 	}
 
+	@Test
+	public void testLazyQuery() {
+		QueryFunction<Store, Class<?>> query = SubTypes.of(TypesAnnotated.with(AC1.class)).asClass();
+		Set<Class<?>> all = reflections.get(query);
+		assertEquals(all, reflections.stream(query).collect(Collectors.toCollection(LinkedHashSet::new)));
+		assertEquals(all.size(), reflections.stream(query).count());
+		assertTrue(reflections.stream(query).anyMatch(C5.class::equals));
+		assertEquals(all.stream().limit(2).collect(Collectors.toList()), new ArrayList<>(reflections.get(query.limit(2))));
+
+		// short circuiting evaluates only the elements needed
+		List<String> evaluated = new ArrayList<>();
+		QueryFunction<Store, String> counted = SubTypes.of(C1.class).filter(evaluated::add);
+		assertTrue(reflections.stream(counted).findFirst().isPresent());
+		assertEquals(1, evaluated.size());
+		evaluated.clear();
+		assertEquals(reflections.get(SubTypes.of(C1.class)), reflections.get(counted));
+
+		assertEquals(reflections.get(SubTypes.of(C1.class)),
+			reflections.get(SubTypes.of(C1.class).asClass().asString()));
+	}
+
 	//
 	@SafeVarargs
 	public static <T> Matcher<Collection<T>> equalTo(T... operand) {
@@ -0,0 +1,99 @@
+package org.reflections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.vfs.Vfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.reflections.scanners.Scanners.SubTypes;
+
+public class ReflectionsScanTest {
+
+    @Test
+    public void executorServiceScanEqualsSequentialScan() {
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+            .addUrls(ClasspathHelper.forClass(ReflectionsScanTest.class), ClasspathHelper.forClass(Test.class))
+            .setScanners(Scanners.values());
+        Reflections sequential = new Reflections(configuration.setParallel(false));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            Reflections parallel = new Reflections(configuration.setExecutorService(executorService));
+            assertEquals(sequential.getStore(), parallel.getStore());
+            assertFalse(executorService.isShutdown());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void incrementalRescan(@TempDir Path dir) throws Exception {
+        Path target = dir.resolve("org/reflections");
+        Files.createDirectories(target);
+        copyClass(TestModel.C1.class, target);
+
+        URL jar = ClasspathHelper.forClass(Test.class);
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+            .addUrls(dir.toUri().toURL(), jar)
+            .setScanners(SubTypes)
+            .setIncremental(true));
+        assertTrue(reflections.get(SubTypes.of(TestModel.I1.class)).contains(TestModel.C1.class.getName()));
+        assertFalse(reflections.get(SubTypes.of(TestModel.I1.class)).contains(TestModel.C2.class.getName()));
+        assertEquals(Vfs.fingerprint(jar), Vfs.fingerprint(jar));
+        int jarTypes = reflections.get(SubTypes.of(Annotation.class)).size();
+
+        copyClass(TestModel.C2.class, target);
+        assertTrue(reflections.rescan().get(SubTypes.of(TestModel.I1.class)).contains(TestModel.C2.class.getName()));
+        assertEquals(jarTypes, reflections.get(SubTypes.of(Annotation.class)).size());
+
+        Files.delete(target.resolve("TestModel$C1.class"));
+        Files.delete(target.resolve("TestModel$C2.class"));
+        assertFalse(reflections.rescan().get(SubTypes.of(TestModel.I1.class)).contains(TestModel.C1.class.getName()));
+    }
+
+    private static void copyClass(Class<?> type, Path target) throws IOException {
+        String name = type.getName().substring(type.getPackage().getName().length() + 1) + ".class";
+        try (InputStream inputStream = type.getResourceAsStream(name)) {
+            Files.copy(inputStream, target.resolve(name));
+        }
+    }
+
+    @Test
+    public void scanListener() {
+        Map<String, Map<String, Set<String>>> listened = new ConcurrentHashMap<>();
+        Set<URL> sources = ConcurrentHashMap.newKeySet();
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+            .forPackage("org.reflections")
+            .setScanners(Scanners.values())
+            .setScanListener((index, key, value, url) -> {
+                listened.computeIfAbsent(index, i -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(value);
+                sources.add(url);
+            });
+
+        Reflections reflections = new Reflections(configuration.setExpandSuperTypes(false));
+        reflections.getStore().values().removeIf(Map::isEmpty);
+        assertEquals(reflections.getStore(), listened);
+        assertTrue(configuration.getUrls().containsAll(sources));
+
+        listened.clear();
+        Reflections notRetained = new Reflections(configuration.setRetainStore(false));
+        assertTrue(notRetained.getStore().values().stream().allMatch(Map::isEmpty));
+        assertEquals(reflections.getStore(), listened);
+    }
+}
@@ -11,6 +11,7 @@ import org.reflections.scanners.MemberUsageScanner;
 import org.reflections.scanners.MethodAnnotationsScanner;
 import org.reflections.scanners.MethodParameterNamesScanner;
 import org.reflections.scanners.ResourcesScanner;
+import org.reflections.scanners.Scanner;
 import org.reflections.scanners.Scanners;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.scanners.TypeAnnotationsScanner;
@@ -271,6 +272,14 @@ public class ReflectionsTest implements NameHelper {
         assertTrue(reflections.getAllTypes().isEmpty());
     }
 
+    /** configuration of {@code org.reflections} urls, filtered to the {@link TestModel} types, with the given {@code scanners} */
+    public static ConfigurationBuilder testModelConfiguration(Scanner... scanners) {
+        return new ConfigurationBuilder()
+            .forPackage("org.reflections")
+            .filterInputsBy(new FilterBuilder().includePattern("org\\.reflections\\.TestModel\\$.*"))
+            .setScanners(scanners);
+    }
+
     //
     public static String getUserDir() {
         File file = new File(System.getProperty("user.dir"));
@@ -0,0 +1,49 @@
+package org.reflections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.vfs.Vfs;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScanCacheTest {
+
+    @Test
+    public void scanCache(@TempDir Path cacheDir) throws Exception {
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+            .addUrls(ClasspathHelper.forClass(ScanCacheTest.class), ClasspathHelper.forClass(Test.class))
+            .setScanners(Scanners.TypesAnnotated, Scanners.MethodsAnnotated, Scanners.Resources)
+            .setCacheDir(cacheDir);
+        Reflections scanned = new Reflections(configuration);
+        List<Path> cached;
+        try (Stream<Path> paths = Files.list(cacheDir)) {
+            cached = paths.collect(Collectors.toList());
+        }
+        assertEquals(1, cached.size(), "only the jar file url should be cached");
+
+        Reflections loaded = new Reflections(configuration);
+        assertEquals(scanned.getStore(), loaded.getStore());
+
+        Files.write(cached.get(0), new byte[] {1, 2, 3});
+        assertEquals(scanned.getStore(), new Reflections(configuration).getStore());
+        assertEquals(scanned.getStore(), new Reflections(configuration).getStore());
+    }
+
+    @Test
+    public void fingerprintIgnoresLastModified(@TempDir Path dir) throws Exception {
+        Path jar = Vfs.getFile(ClasspathHelper.forClass(Test.class)).toPath();
+        Path copy = Files.copy(jar, dir.resolve("copy.jar"));
+        Files.setLastModifiedTime(copy, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 60_000));
+        assertEquals(Vfs.fingerprint(jar.toUri().toURL()), Vfs.fingerprint(copy.toUri().toURL()));
+    }
+}
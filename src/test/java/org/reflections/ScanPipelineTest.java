@@ -0,0 +1,49 @@
+package org.reflections;
+
+import org.junit.jupiter.api.Test;
+import org.reflections.scanners.Scanner;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScanPipelineTest {
+
+    @Test
+    public void pipelinedScanEqualsSequentialScan() {
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+            .addUrls(ClasspathHelper.forClass(ScanPipelineTest.class), ClasspathHelper.forClass(Test.class))
+            .setScanners(Scanners.values());
+        Reflections sequential = new Reflections(configuration.setParallel(false));
+        Reflections pipelined = new Reflections(configuration.setPipelined(2, 3, 2));
+        assertEquals(sequential.getStore(), pipelined.getStore());
+
+        assertThrows(ReflectionsException.class, () -> configuration.setPipelined(1, 0, 1));
+        assertEquals(0, configuration.setPipelined(0, 0, 0).getPipelineReaders());
+    }
+
+    @Test
+    public void virtualThreadsScanEqualsSequentialScan() {
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+            .addUrls(ClasspathHelper.forClass(ScanPipelineTest.class), ClasspathHelper.forClass(Test.class))
+            .setScanners(Scanners.values());
+        Reflections sequential = new Reflections(configuration.setParallel(false));
+        // reads on virtual threads if supported by the runtime, otherwise scans as configured
+        Reflections virtual = new Reflections(configuration.setParallel(true).setVirtualThreads(true));
+        assertEquals(sequential.getStore(), virtual.getStore());
+    }
+
+    @Test
+    public void failedStageFailsPipelinedScan() {
+        Scanner failing = classFile -> {
+            throw new AssertionError("failing scanner");
+        };
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+            .addUrls(ClasspathHelper.forClass(ScanPipelineTest.class), ClasspathHelper.forClass(Test.class))
+            .setScanners(failing)
+            .setPipelined(2, 1, 1);
+        ReflectionsException e = assertThrows(ReflectionsException.class, () -> new Reflections(configuration));
+        assertInstanceOf(AssertionError.class, e.getCause());
+    }
+}
@@ -0,0 +1,37 @@
+package org.reflections;
+
+import org.junit.jupiter.api.Test;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScanStatisticsTest {
+
+    @Test
+    public void scanStatistics() throws MalformedURLException {
+        URL missing = new URL("file:/no/such/dir/");
+        ConfigurationBuilder configuration = new ConfigurationBuilder()
+            .addUrls(ClasspathHelper.forClass(ScanStatisticsTest.class), missing)
+            .filterInputsBy(new FilterBuilder().includePackage(MoreTestsModel.class.getName()))
+            .setScanners(Scanners.SubTypes, Scanners.TypesAnnotated);
+        assertTrue(new Reflections(configuration).getStatistics().getUrls().isEmpty());
+        ScanStatistics statistics = new Reflections(configuration.setCollectStatistics(true)).getStatistics();
+
+        ScanStatistics.Counters scanned = statistics.getUrls().get(ClasspathHelper.forClass(ScanStatisticsTest.class));
+        assertTrue(scanned.getFilesScanned() > 0);
+        assertEquals(scanned.getFilesScanned(), scanned.getClassFilesParsed());
+        assertTrue(scanned.getBytesRead() > 0 && scanned.getFilesSkipped() > 0);
+        assertEquals(0, scanned.getExceptions());
+        assertEquals(1, statistics.getUrls().get(missing).getExceptions());
+        assertEquals(scanned.getFilesScanned(), statistics.getScanners().get(Scanners.TypesAnnotated.index()).getFilesScanned());
+        ScanStatistics.Counters subTypes = statistics.getScanners().get(Scanners.SubTypes.index());
+        assertEquals(subTypes.getFilesScanned(), subTypes.getClassFilesParsed());
+        assertTrue(subTypes.getBytesRead() > 0 && subTypes.getWallTime() > 0);
+    }
+}
@@ -0,0 +1,40 @@
+package org.reflections;
+
+import org.junit.jupiter.api.Test;
+import org.reflections.scanners.Scanners;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.reflections.ReflectionsTest.testModelConfiguration;
+
+public class StringPoolTest {
+
+    @Test
+    public void scannedStringsAreCanonical() {
+        String name = TestModel.AM1.class.getName();
+        for (boolean parallel : new boolean[] {false, true}) {
+            Store store = new Reflections(testModelConfiguration(Scanners.TypesAnnotated, Scanners.MethodsAnnotated)
+                .setParallel(parallel)).getStore();
+            assertSame(canonical(store, Scanners.MethodsAnnotated.index(), name), canonical(store, Scanners.TypesAnnotated.index(), name));
+        }
+
+        Reflections reflections = new Reflections(testModelConfiguration(Scanners.TypesAnnotated));
+        reflections.merge(new Reflections(testModelConfiguration(Scanners.MethodsAnnotated)));
+        reflections.merge(new Reflections(testModelConfiguration(Scanners.FieldsAnnotated)));
+        Store store = reflections.getStore();
+        assertSame(canonical(store, Scanners.MethodsAnnotated.index(), name), canonical(store, Scanners.TypesAnnotated.index(), name));
+        String field = TestModel.AF1.class.getName();
+        assertSame(canonical(store, Scanners.FieldsAnnotated.index(), field), canonical(store, Scanners.TypesAnnotated.index(), field));
+    }
+
+    /** the instance equal to the given {@code name} in the given {@code index}, either a key or a value */
+    private static String canonical(Store store, String index, String name) {
+        for (Map.Entry<String, Set<String>> entry : store.get(index).entrySet()) {
+            if (entry.getKey().equals(name)) return entry.getKey();
+            for (String value : entry.getValue()) if (value.equals(name)) return value;
+        }
+        throw new AssertionError(name + " not found in " + index);
+    }
+}
@@ -0,0 +1,68 @@
+package org.reflections;
+
+import org.junit.jupiter.api.Test;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.reflections.ReflectionsTest.testModelConfiguration;
+import static org.reflections.scanners.Scanners.SubTypes;
+
+public class TypeClosureTest {
+
+    @Test
+    public void typeClosure() {
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+            .addUrls(ClasspathHelper.forClass(TypeClosureTest.class), ClasspathHelper.forClass(Test.class))
+            .setScanners(Scanners.SubTypes)
+            .setBuildTypeClosure(true));
+        TypeClosure closure = reflections.getTypeClosure();
+        for (String type : reflections.getStore().get(SubTypes.index()).keySet()) {
+            assertEquals(reflections.get(SubTypes.of(type)), closure.getSubTypes(type), type);
+        }
+        assertEquals(reflections.get(SubTypes.of(TestModel.I1.class).asClass()), (Set) reflections.getSubTypesOf(TestModel.I1.class));
+
+        String c1 = TestModel.C1.class.getName(), c3 = TestModel.C3.class.getName(), i1 = TestModel.I1.class.getName();
+        assertTrue(closure.isSubType(c3, c1));
+        assertTrue(closure.isSubType(c3, i1));
+        assertFalse(closure.isSubType(c1, c3));
+        assertFalse(closure.isSubType(c1, c1));
+        assertTrue(closure.getSuperTypes(c3).containsAll(Arrays.asList(c1, i1, TestModel.I2.class.getName())));
+        assertTrue(closure.getSubTypes("no.such.Type").isEmpty());
+
+        // diamond and cycle
+        Map<String, Set<String>> index = new HashMap<>();
+        index.put("a", new HashSet<>(Arrays.asList("b", "c")));
+        index.put("b", new HashSet<>(Arrays.asList("d")));
+        index.put("c", new HashSet<>(Arrays.asList("d")));
+        index.put("x", new HashSet<>(Arrays.asList("y")));
+        index.put("y", new HashSet<>(Arrays.asList("x")));
+        TypeClosure diamond = new TypeClosure(index);
+        assertEquals(new HashSet<>(Arrays.asList("b", "c", "d")), diamond.getSubTypes("a"));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), diamond.getSuperTypes("d"));
+        assertTrue(diamond.getSubTypes("x").contains("y"));
+    }
+
+    @Test
+    public void lazyTypeClosure() {
+        Reflections reflections = new Reflections(testModelConfiguration(Scanners.SubTypes).setConcurrentStore(true));
+        TypeClosure closure = reflections.getTypeClosure();
+        assertSame(closure, reflections.getTypeClosure());
+
+        Store store = new Store(new HashMap<>());
+        store.put(SubTypes.index(), new HashMap<>(Collections.singletonMap(TestModel.C3.class.getName(), new HashSet<>(Collections.singletonList("merged.Type")))));
+        reflections.merge(new Reflections(store));
+        TypeClosure merged = reflections.getTypeClosure();
+        assertNotSame(closure, merged);
+        assertTrue(merged.isSubType("merged.Type", TestModel.C1.class.getName()));
+        assertFalse(closure.isSubType("merged.Type", TestModel.C1.class.getName()));
+    }
+}
@@ -2,28 +2,46 @@ package org.reflections;
 
 import javassist.bytecode.ClassFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections.scanners.Scanners;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.reflections.vfs.JrtDir;
+import org.reflections.vfs.NestedJarDir;
 import org.reflections.vfs.SystemDir;
 import org.reflections.vfs.Vfs;
 import org.slf4j.Logger;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
 
 import static java.text.MessageFormat.format;
-import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.reflections.ReflectionsQueryTest.equalTo;
-import static org.reflections.scanners.Scanners.SubTypes;
 
 public class VfsTest {
 
@@ -41,14 +59,11 @@ public class VfsTest {
         testVfsDir(dir);
     }
 
-<<<<<<< HEAD
     /**
      * Given a jarUrl, vfs should tell it to be url
      * Given a jarUrl, vfs should not say it is file or directory
      * @throws Exception
      */
-=======
->>>>>>> parent of d15d0ec... vfsTest v1
     @Test
     public void testJarUrl() throws Exception {
         URL url = ClasspathHelper.forClass(Logger.class);
@@ -63,14 +78,11 @@ public class VfsTest {
         testVfsDir(dir);
     }
 
-<<<<<<< HEAD
     /**
      * Given a directory, vfs should tell it to be directory
      * Given a directory, vfs should not say it is url or file
      * @throws Exception
      */
-=======
->>>>>>> parent of d15d0ec... vfsTest v1
     @Test
     public void testDirectory() throws Exception {
         URL url = ClasspathHelper.forClass(getClass());
@@ -85,13 +97,10 @@ public class VfsTest {
         testVfsDir(dir);
     }
 
-<<<<<<< HEAD
     /**
      * vfs can tell in the givne url can be interpreted as input stream
      * @throws Exception
      */
-=======
->>>>>>> parent of d15d0ec... vfsTest v1
     @Test
     public void testJarInputStream() throws Exception {
         URL url = ClasspathHelper.forClass(Logger.class);
@@ -117,12 +126,9 @@ public class VfsTest {
         }
     }
 
-<<<<<<< HEAD
     /**
      * edge case: directory with space in name
      */
-=======
->>>>>>> parent of d15d0ec... vfsTest v1
     @Test
     public void dirWithSpaces() {
         Collection<URL> urls = ClasspathHelper.forPackage("dir+with spaces");
@@ -134,13 +140,10 @@ public class VfsTest {
         }
     }
 
-<<<<<<< HEAD
     /**
      * using directory name as input
      * @throws MalformedURLException
      */
-=======
->>>>>>> parent of d15d0ec... vfsTest v1
     @Test
     public void vfsFromDirWithJarInName() throws MalformedURLException {
         String tmpFolder = System.getProperty("java.io.tmpdir");
@@ -159,13 +162,10 @@ public class VfsTest {
         }
     }
 
-<<<<<<< HEAD
     /**
      * using directory as input
      * @throws MalformedURLException
      */
-=======
->>>>>>> parent of d15d0ec... vfsTest v1
     @Test
     public void vfsFromDirWithJarInJar() throws Exception {
         URL resource = ClasspathHelper.contextClassLoader().getResource("jarWithBootLibJar.jar");
@@ -195,51 +195,164 @@ public class VfsTest {
         }
     }
 
-<<<<<<< HEAD
-    /**
-     * url directory should be distinguished by vfs
-     * @throws Exception
-     */
-    void testUrlDir() throws Exception{
-        URL url = new URL(ClasspathHelper.forClass(Logger.class).toExternalForm().replace("jar:", ""));
+    @Test
+    public void pathFilterSkipsExcludedDirs() {
+        FilterBuilder inputsFilter = new FilterBuilder().includePackage("META-INF.reflections");
+        Set<String> visitedDirs = ConcurrentHashMap.newKeySet();
+        Vfs.PathFilter pathFilter = new Vfs.PathFilter() {
+            @Override
+            public boolean acceptsFile(String path) {
+                return inputsFilter.testPath(path);
+            }
 
-        assertTrue(url.toString().startsWith("file:"));
-        assertTrue(url.toString().contains(".jar"));
+            @Override
+            public boolean acceptsDir(String dirPath) {
+                visitedDirs.add(dirPath);
+                return inputsFilter.testDir(dirPath);
+            }
+        };
+
+        Vfs.Dir dir = Vfs.fromURL(ClasspathHelper.forClass(VfsTest.class));
+        List<String> expected = new ArrayList<>(), filtered = new ArrayList<>();
+        dir.getFiles().forEach(file -> { if (inputsFilter.testPath(file.getRelativePath())) expected.add(file.getRelativePath()); });
+        dir.getFiles(pathFilter).forEach(file -> filtered.add(file.getRelativePath()));
+        expected.sort(null);
+        filtered.sort(null);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, filtered);
+        assertTrue(visitedDirs.contains("org/"));
+        assertFalse(visitedDirs.contains("org/reflections/"));
+    }
 
-        assertFalse(urls.isEmpty());
-        for (URL url : urls) {
+    @Test
+    public void parallelDirWalkEqualsSequentialWalk() {
+        Vfs.Dir dir = Vfs.fromURL(ClasspathHelper.forClass(VfsTest.class));
+        List<String> sequential = new ArrayList<>(), parallel = new ArrayList<>();
+        dir.getFiles().forEach(file -> sequential.add(file.getRelativePath()));
+        List<Iterable<Vfs.File>> batches = dir.getFileBatches(4);
+        batches.forEach(batch -> batch.forEach(file -> parallel.add(file.getRelativePath())));
+        sequential.sort(null);
+        parallel.sort(null);
+        assertEquals(sequential, parallel);
+        assertTrue(batches.size() > 1);
+    }
+
+    @Test
+    public void fileByteBufferEqualsInputStream() throws IOException {
+        for (URL url : Arrays.asList(ClasspathHelper.forClass(VfsTest.class), ClasspathHelper.forClass(javassist.bytecode.ClassFile.class))) {
             Vfs.Dir dir = Vfs.fromURL(url);
-            assertNotNull(dir);
-            assertNotNull(dir.getFiles().iterator().next());
+            try {
+                int count = 0;
+                for (Vfs.File file : dir.getFiles()) {
+                    if (count++ == 50) break;
+                    ByteBuffer buffer = file.getByteBuffer();
+                    assertNotNull(buffer);
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    try (InputStream inputStream = file.openInputStream()) {
+                        assertArrayEquals(readBytes(inputStream), bytes, file.getRelativePath());
+                    }
+                }
+            } finally {
+                dir.close();
+            }
         }
     }
 
-    /**
-     * ExpandSupertypes  should be distinguished by vfs
-     */
     @Test
-    public void testExpandSupertypes() {
-        ConfigurationBuilder configuration = new ConfigurationBuilder()
-                .forPackage("org.reflections")
-                .filterInputsBy(inputsFilter);
-
-        Reflections reflections = new Reflections(configuration);
-        assertThat(reflections.get(SubTypes.of(ReflectionsExpandSupertypesTest.ExpandTestModel.NotScanned.BaseInterface.class).asClass()),
-                equalTo(
-                        ReflectionsExpandSupertypesTest.ExpandTestModel.NotScanned.BaseClass.class,
-                        ReflectionsExpandSupertypesTest.ExpandTestModel.Scanned.ChildrenClass.class));
-
-        Reflections refNoExpand = new Reflections(configuration.setExpandSuperTypes(false));
-        assertThat(refNoExpand.get(SubTypes.of(ReflectionsExpandSupertypesTest.ExpandTestModel.NotScanned.BaseInterface.class).asClass()),
-                equalTo());
+    public void nestedJarDir(@TempDir Path dir) throws Exception {
+        Map<String, byte[]> classes = new TreeMap<>();
+        for (Class<?> type : Arrays.asList(VfsTest.class, MoreTestsModel.class, Reflections.class)) {
+            String name = type.getName().replace('.', '/') + ".class";
+            try (InputStream inputStream = type.getClassLoader().getResourceAsStream(name)) {
+                classes.put(name, readBytes(inputStream));
+            }
+        }
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        try (JarOutputStream jar = new JarOutputStream(inner)) {
+            jar.putNextEntry(new JarEntry("org/"));
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                jar.putNextEntry(new JarEntry(entry.getKey()));
+                jar.write(entry.getValue());
+            }
+        }
+        byte[] innerBytes = inner.toByteArray();
+        Path outer = dir.resolve("app.jar");
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(outer))) {
+            CRC32 crc = new CRC32();
+            crc.update(innerBytes);
+            JarEntry stored = new JarEntry("lib/stored.jar");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(innerBytes.length);
+            stored.setCrc(crc.getValue());
+            jar.putNextEntry(stored);
+            jar.write(innerBytes);
+            jar.putNextEntry(new JarEntry("lib/deflated.jar"));
+            jar.write(innerBytes);
+        }
+
+        for (String name : Arrays.asList("stored.jar", "deflated.jar")) {
+            Vfs.Dir nested = Vfs.fromURL(new URL("jar:" + outer.toUri() + "!/lib/" + name + "!/"));
+            assertEquals(NestedJarDir.class, nested.getClass());
+            Map<String, byte[]> read = new TreeMap<>();
+            for (Iterable<Vfs.File> batch : nested.getFileBatches(2)) {
+                for (Vfs.File file : batch) {
+                    try (InputStream inputStream = file.openInputStream()) {
+                        read.put(file.getRelativePath(), readBytes(inputStream));
+                    }
+                    ByteBuffer buffer = file.getByteBuffer();
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    assertArrayEquals(read.get(file.getRelativePath()), bytes);
+                }
+            }
+            assertEquals(classes.keySet(), read.keySet());
+            classes.forEach((key, bytes) -> assertArrayEquals(bytes, read.get(key), key));
+
+            String reflectionsClass = Reflections.class.getName().replace('.', '/') + ".class";
+            Vfs.PathFilter filter = path -> path.equals(reflectionsClass);
+            List<String> filtered = new ArrayList<>();
+            nested.getFiles(filter).forEach(file -> filtered.add(file.getRelativePath()));
+            nested.getFileBatches(2, filter).forEach(batch -> batch.forEach(file -> filtered.add(file.getRelativePath())));
+            assertEquals(Arrays.asList(reflectionsClass, reflectionsClass), filtered);
+        }
+    }
+
+    private static byte[] readBytes(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        for (int read; (read = inputStream.read(chunk)) != -1; ) bytes.write(chunk, 0, read);
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void jrtModules() throws Exception {
+        assertEquals(new HashSet<>(Arrays.asList(new URL("jrt:/java.base"), new URL("jrt:/java.logging"))),
+            new HashSet<>(ClasspathHelper.forModules("java.base", "java.logging", "no.such.module")));
+
+        Vfs.Dir dir = Vfs.fromURL(new URL("jrt:/java.logging"));
+        assertEquals(JrtDir.class, dir.getClass());
+        Set<String> files = new HashSet<>(), batched = new HashSet<>();
+        dir.getFiles().forEach(file -> files.add(file.getRelativePath()));
+        dir.getFileBatches(10).forEach(batch -> batch.forEach(file -> batched.add(file.getRelativePath())));
+        assertTrue(files.contains("java/util/logging/Logger.class"));
+        assertEquals(files, batched);
+
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+            .addUrls(new URL("jrt:/"))
+            .setModulesFilter(new FilterBuilder().includePattern("java\\.(logging|sql)"))
+            .setScanners(Scanners.Resources, Scanners.MethodsReturn)
+            .setCollectStatistics(true));
+        Set<String> scannedModules = reflections.getStatistics().getUrls().keySet().stream().map(JrtDir::getModuleName).collect(Collectors.toSet());
+        assertEquals(new HashSet<>(Arrays.asList("java.logging", "java.sql")), scannedModules);
+        assertTrue(reflections.getStore().get(Scanners.MethodsReturn.index()).containsKey("java.util.logging.Logger"));
+        assertFalse(reflections.getStore().get(Scanners.MethodsReturn.index()).containsKey("java.lang.ProcessHandle"));
     }
 
     /**
      * Call by testJarFile, construct directory from a file
      * @param dir
      */
-=======
->>>>>>> parent of d15d0ec... vfsTest v1
     private void testVfsDir(Vfs.Dir dir) {
         List<Vfs.File> files = new ArrayList<>();
         for (Vfs.File file : dir.getFiles()) {